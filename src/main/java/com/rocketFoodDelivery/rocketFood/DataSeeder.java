@@ -17,6 +17,10 @@ import java.util.concurrent.ThreadLocalRandom;
 @Component
 public class DataSeeder {
 
+   // Seeded addresses are spread over roughly 20 x 20 km around downtown Montreal
+   private static final double SEED_LATITUDE = 45.5017;
+   private static final double SEED_LONGITUDE = -73.5673;
+
    private final UserRepository userRepository;
    private final RestaurantRepository restaurantRepository;
    private final ProductOrderRepository productOrderRepository;
@@ -88,6 +92,8 @@ public class DataSeeder {
                    .streetAddress(faker.address().streetAddress())
                    .city(faker.address().city())
                    .postalCode(faker.address().zipCode())
+                   .latitude(SEED_LATITUDE + (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.2)
+                   .longitude(SEED_LONGITUDE + (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.3)
                    .build();
            addresses.add(address);
        }
@@ -198,6 +204,8 @@ public class DataSeeder {
        ericaAddress.setStreetAddress("123 CodeBoxx Boulevard");
        ericaAddress.setCity("Montreal");
        ericaAddress.setPostalCode("H4G52Z");
+       ericaAddress.setLatitude(SEED_LATITUDE);
+       ericaAddress.setLongitude(SEED_LONGITUDE);
        addressRepository.save(ericaAddress);
 
        Employee ericaEmployee = new Employee();
@@ -0,0 +1,97 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-scope change counters used to answer conditional GETs without reading the database.
+ * Write paths bump the scopes whose responses they change, once their transaction has committed;
+ * read routes turn the current counter into an ETag before loading any data.
+ *
+ * Counters live in memory only, so every ETag also carries the startup epoch of this instance:
+ * tags handed out before a restart never match afterwards. ETags also carry the normalized query
+ * parameters of the request, so two filters or pages of the same scope never share a tag.
+ */
+@Component
+public class ChangeVersionTracker {
+    public static final String RESTAURANTS = "restaurants";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Scope of the GET /api/orders?type={userType}&id={id} responses.
+     */
+    public static String ordersOf(String userType, int id) {
+        return "orders-" + userType.toLowerCase() + "-" + id;
+    }
+
+    /**
+     * Scope of the GET /api/products?restaurant={restaurantId} responses.
+     */
+    public static String menuOf(int restaurantId) {
+        return "menu-" + restaurantId;
+    }
+
+    public long current(String scope) {
+        AtomicLong version = versions.get(scope);
+        return version == null ? 0 : version.get();
+    }
+
+    public long bump(String scope) {
+        return versions.computeIfAbsent(scope, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Bumps the order list scopes of everyone involved in an order.
+     */
+    public void bumpOrderOwners(int customerId, int restaurantId, Integer courierId) {
+        bump(ordersOf("customer", customerId));
+        bump(ordersOf("restaurant", restaurantId));
+        if (courierId != null) {
+            bump(ordersOf("courier", courierId));
+        }
+    }
+
+    /**
+     * @param parameters The query parameters of the request, e.g. WebRequest.getParameterMap().
+     */
+    public String etag(String scope, Map<String, String[]> parameters) {
+        return etag(scope, current(scope), parameters);
+    }
+
+    /**
+     * ETag of a response built from data read at the given version of the scope.
+     *
+     * @param parameters The query parameters of the request, e.g. WebRequest.getParameterMap().
+     */
+    public String etag(String scope, long version, Map<String, String[]> parameters) {
+        String query = normalizedQuery(parameters);
+        return "\"" + scope + "." + epoch + "." + version + (query.isEmpty() ? "" : "?" + query) + "\"";
+    }
+
+    /**
+     * Parameters sorted by name, each value kept in request order and URL-encoded, so the result never
+     * contains a quote and equivalent query strings give the same tag.
+     */
+    static String normalizedQuery(Map<String, String[]> parameters) {
+        StringJoiner query = new StringJoiner("&");
+        new TreeMap<>(parameters).forEach((name, values) -> {
+            for (String value : values) {
+                query.add(encode(name) + "=" + encode(value));
+            }
+        });
+        return query.toString();
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+}
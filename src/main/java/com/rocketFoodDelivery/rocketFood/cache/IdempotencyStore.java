@@ -0,0 +1,186 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import com.rocketFoodDelivery.rocketFood.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of requests sent with an Idempotency-Key header, so a retried request gets the
+ * original result instead of being executed again.
+ *
+ * Keys are scoped to the caller (e.g. the customer placing the order), so two callers choosing the same key do
+ * not see each other's results. They are spread over independently locked stripes, each a bounded
+ * insertion-ordered map whose entries expire after a fixed time. When a stripe is full its oldest finished entries
+ * are evicted; entries whose request is still running are never evicted, so a stripe may briefly hold more than its
+ * share while many requests are in flight. A duplicate that arrives while the first request is still running waits
+ * on the first request's future. Failed executions are forgotten once their waiters are released, so they can be
+ * retried.
+ */
+@Component
+public class IdempotencyStore {
+    private static final int STRIPE_COUNT = 64;
+
+    private final Stripe[] stripes;
+    private final long ttlNanos;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyStore(@Value("${app.idempotency.max-keys:100000}") int maxKeys,
+                            @Value("${app.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${app.idempotency.wait-timeout-millis:30000}") long waitTimeoutMillis) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Idempotency store size must be positive");
+        }
+        int stripeCount = Math.min(STRIPE_COUNT, maxKeys);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxKeys / stripeCount + (i < maxKeys % stripeCount ? 1 : 0));
+        }
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * Runs the action once per scope and key and returns its result to every request that uses the same key
+     * in the same scope.
+     *
+     * @param scope       Who the key belongs to, e.g. "customer-5".
+     * @param key         The Idempotency-Key sent by the client.
+     * @param fingerprint Identifies the request payload; reusing a key with another payload is rejected.
+     * @param action      Produces the result the first time the key is seen.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, String fingerprint, Supplier<T> action) {
+        // Scopes never contain '|', so no two scope and key pairs map to the same entry
+        String scopedKey = scope + '|' + key;
+        Stripe stripe = stripeFor(scopedKey);
+        Entry entry;
+        boolean owner = false;
+        synchronized (stripe) {
+            entry = stripe.entries.get(scopedKey);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                stripe.entries.remove(scopedKey);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(fingerprint, System.nanoTime() + ttlNanos);
+                stripe.put(scopedKey, entry);
+                owner = true;
+            }
+        }
+
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new ValidationException("Idempotency-Key " + key + " was already used for a different request");
+        }
+
+        if (owner) {
+            try {
+                T result = action.get();
+                entry.result.complete(result);
+                return result;
+            } catch (Throwable e) {
+                // Errors too, or every later request with this key would wait for a result that never comes
+                forget(scopedKey, entry);
+                entry.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return (T) await(entry);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private Object await(Entry entry) {
+        try {
+            return entry.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for the original request with the same Idempotency-Key");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private void forget(String scopedKey, Entry entry) {
+        Stripe stripe = stripeFor(scopedKey);
+        synchronized (stripe) {
+            stripe.entries.remove(scopedKey, entry);
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+
+        boolean isInFlight() {
+            return !result.isDone();
+        }
+    }
+
+    // Guarded by synchronizing on the stripe
+    private static final class Stripe {
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        private final int maxSize;
+
+        Stripe(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        void put(String scopedKey, Entry entry) {
+            entries.put(scopedKey, entry);
+            long now = System.nanoTime();
+            Iterator<Entry> oldestFirst = entries.values().iterator();
+            int excess = entries.size() - maxSize;
+            while (oldestFirst.hasNext()) {
+                Entry eldest = oldestFirst.next();
+                if (eldest.isInFlight()) {
+                    continue;
+                }
+                if (excess > 0) {
+                    oldestFirst.remove();
+                    excess--;
+                } else if (eldest.isExpired(now)) {
+                    oldestFirst.remove();
+                } else {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCacheStatsDTO;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, thread-safe least-recently-used cache with hit, miss and eviction counters.
+ * Keys are spread over independently locked segments so concurrent readers rarely contend.
+ * Entries can also be given a time to live, after which they are dropped on access and counted as evictions.
+ *
+ * Loaders should take a {@link #stamp(Object)} before reading from the database and store the value with
+ * {@link #putIfNotInvalidatedSince(Object, Object, long)}, so a value read before a concurrent invalidation
+ * is never cached after it. Stamps are kept per segment, so an invalidation only holds back loaders of keys
+ * in the same segment.
+ *
+ * Caches of mutable values pass a copier, which is applied to every value stored and every value returned,
+ * so callers never share an instance with the cache or with each other.
+ */
+public class LruCache<K, V> {
+    private static final int SEGMENT_COUNT = 16;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copier;
+    private final List<Segment<K, V>> segments;
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LruCache(int maxSize) {
+        this(maxSize, 0);
+    }
+
+    /**
+     * @param ttlMillis Time to live of each entry from the moment it is stored; 0 keeps entries until evicted.
+     */
+    public LruCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, UnaryOperator.identity());
+    }
+
+    /**
+     * @param ttlMillis Time to live of each entry from the moment it is stored; 0 keeps entries until evicted.
+     * @param copier    Copies a value on its way into and out of the cache; identity for immutable values.
+     */
+    public LruCache(int maxSize, long ttlMillis, UnaryOperator<V> copier) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("Cache TTL must not be negative");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.copier = copier;
+        int segmentCount = Math.min(SEGMENT_COUNT, maxSize);
+        this.segments = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentSize = maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0);
+            segments.add(new Segment<>(segmentSize, evictions));
+        }
+    }
+
+    /**
+     * @return A copy of the cached value, or null on a miss.
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        V value = null;
+        synchronized (segment) {
+            Timed<V> entry = segment.entries.get(key);
+            if (entry != null) {
+                if (entry.isExpired(System.nanoTime())) {
+                    segment.entries.remove(key);
+                    evictions.increment();
+                } else {
+                    value = entry.value;
+                }
+            }
+        }
+        if (value == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copier.apply(value);
+    }
+
+    public void put(K key, V value) {
+        Timed<V> entry = timed(value);
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    /**
+     * @return A token to pass to {@link #putIfNotInvalidatedSince(Object, Object, long)} for the same key.
+     */
+    public long stamp(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.invalidations;
+        }
+    }
+
+    /**
+     * Stores the value unless an invalidation touched the key's segment after the stamp was taken.
+     */
+    public void putIfNotInvalidatedSince(K key, V value, long stamp) {
+        Timed<V> entry = timed(value);
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            if (segment.invalidations == stamp) {
+                segment.put(key, entry);
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.invalidations++;
+            segment.entries.remove(key);
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Removes every entry whose value matches the predicate. Scans the whole cache.
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.invalidations++;
+                segment.entries.values().removeIf(entry -> predicate.test(entry.value));
+            }
+        }
+        invalidations.increment();
+    }
+
+    public void invalidateAll() {
+        invalidateIf(value -> true);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    public ApiCacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new ApiCacheStatsDTO(
+            size(), maxSize, hitCount, missCount, evictions.sum(), invalidations.sum(),
+            requests == 0 ? 0.0 : (double) hitCount / requests
+        );
+    }
+
+    private Timed<V> timed(V value) {
+        return new Timed<>(copier.apply(value), ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments.get(Math.floorMod(hash, segments.size()));
+    }
+
+    private static final class Timed<V> {
+        private final V value;
+        private final long expiresAt; // System.nanoTime() deadline, 0 for no expiry
+
+        Timed(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+
+    // Guarded by synchronizing on the segment
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, Timed<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxSize;
+        private final LongAdder evictions;
+        private long invalidations;
+
+        Segment(int maxSize, LongAdder evictions) {
+            this.maxSize = maxSize;
+            this.evictions = evictions;
+        }
+
+        void put(K key, Timed<V> entry) {
+            entries.put(key, entry);
+            if (entries.size() > maxSize) {
+                Iterator<Timed<V>> eldest = entries.values().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
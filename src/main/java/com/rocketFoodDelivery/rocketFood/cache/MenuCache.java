@@ -0,0 +1,49 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiProductDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of restaurant menus keyed by restaurant id, used by GET /api/products.
+ * Each menu carries the {@link ChangeVersionTracker#menuOf(int)} version it was read at, which is
+ * returned to clients so they can skip downloading a menu that has not changed.
+ *
+ * Writers bump the menu version before invalidating, and loaders stamp the cache before reading the version,
+ * so a cached menu is never older than its version. Menus are copied in and out, like {@link OrderCache} orders.
+ */
+@Component
+public class MenuCache extends LruCache<Integer, MenuCache.Menu> {
+
+    public MenuCache(@Value("${app.cache.menus.max-size:1000}") int maxSize,
+                     @Value("${app.cache.menus.ttl-seconds:600}") long ttlSeconds) {
+        super(maxSize, ttlSeconds * 1000, Menu::copy);
+    }
+
+    public static final class Menu {
+        private final long version;
+        private final List<ApiProductDTO> products;
+
+        public Menu(long version, List<ApiProductDTO> products) {
+            this.version = version;
+            this.products = List.copyOf(products);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<ApiProductDTO> getProducts() {
+            return products;
+        }
+
+        static Menu copy(Menu menu) {
+            return new Menu(menu.version, menu.products.stream()
+                .map(product -> new ApiProductDTO(product.getId(), product.getName(), product.getCost()))
+                .collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiProductForOrderApiDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Cache of fully built order DTOs keyed by order id, used by GET /api/orders/{id}.
+ * Every write path that changes an order must invalidate it once its transaction has committed.
+ * Orders are copied in and out, so a caller changing the DTO it got back does not change the cached one.
+ */
+@Component
+public class OrderCache extends LruCache<Integer, ApiOrderDTO> {
+
+    public OrderCache(@Value("${app.cache.orders.max-size:10000}") int maxSize) {
+        super(maxSize, 0, OrderCache::copy);
+    }
+
+    static ApiOrderDTO copy(ApiOrderDTO order) {
+        return new ApiOrderDTO(order.getId(), order.getCustomerId(), order.getCustomerAddress(), order.getRestaurantId(),
+            order.getRestaurantName(), order.getRestaurantAddress(), order.getCourierId(), order.getStatus(),
+            order.getProducts() == null ? null : order.getProducts().stream()
+                .map(product -> new ApiProductForOrderApiDTO(product.getProductId(), product.getProductQuantity(),
+                    product.getUnitCost(), product.getTotalCost()))
+                .collect(Collectors.toList()),
+            order.getTotalCost());
+    }
+
+    /**
+     * Drops every cached order of a restaurant, e.g. after it was renamed or deleted.
+     */
+    public void invalidateRestaurant(int restaurantId) {
+        invalidateIf(order -> order.getRestaurantId() == restaurantId);
+    }
+}
@@ -0,0 +1,167 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import com.rocketFoodDelivery.rocketFood.models.CourierStatus;
+import com.rocketFoodDelivery.rocketFood.models.OrderStatus;
+import com.rocketFoodDelivery.rocketFood.repository.CourierStatusRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderStatusRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the order_statuses and courierStatuses tables, which only hold a handful of rows
+ * and change only through seeding or manual edits. Both tables are read once (on first use, and again
+ * when the application is ready) into an immutable snapshot, so status lookups on the order and courier
+ * write paths no longer query the database. Call {@link #refresh()} after changing either table.
+ *
+ * Lookups by name are case-insensitive. Returned entities are fresh, detached copies.
+ */
+@Component
+public class ReferenceDataRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataRegistry.class);
+    // Order statuses no further status change or courier assignment follows
+    private static final Set<String> TERMINAL_ORDER_STATUSES = Set.of("delivered", "cancelled");
+
+    private final OrderStatusRepository orderStatusRepository;
+    private final CourierStatusRepository courierStatusRepository;
+
+    private volatile Snapshot snapshot;
+
+    private static final class Snapshot {
+        private final Map<Integer, String> orderStatusNames;
+        private final Map<String, Integer> orderStatusIds;
+        private final Map<Integer, String> courierStatusNames;
+        private final Map<String, Integer> courierStatusIds;
+
+        private Snapshot(List<OrderStatus> orderStatuses, List<CourierStatus> courierStatuses) {
+            this.orderStatusNames = byId(orderStatuses.stream()
+                .collect(Collectors.toMap(OrderStatus::getId, OrderStatus::getName)));
+            this.orderStatusIds = byName(orderStatusNames);
+            this.courierStatusNames = byId(courierStatuses.stream()
+                .collect(Collectors.toMap(CourierStatus::getId, CourierStatus::getName)));
+            this.courierStatusIds = byName(courierStatusNames);
+        }
+
+        private static Map<Integer, String> byId(Map<Integer, String> names) {
+            return Collections.unmodifiableMap(new TreeMap<>(names));
+        }
+
+        private static Map<String, Integer> byName(Map<Integer, String> names) {
+            Map<String, Integer> ids = new HashMap<>();
+            names.forEach((id, name) -> ids.put(name.toLowerCase(), id));
+            return Collections.unmodifiableMap(ids);
+        }
+    }
+
+    @Autowired
+    public ReferenceDataRegistry(OrderStatusRepository orderStatusRepository,
+                                 CourierStatusRepository courierStatusRepository) {
+        this.orderStatusRepository = orderStatusRepository;
+        this.courierStatusRepository = courierStatusRepository;
+    }
+
+    /**
+     * Reloads both status tables. Runs once the application is ready, i.e. after any seeding.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        Snapshot loaded = load();
+        snapshot = loaded;
+        LOGGER.info("Reference data loaded: {} order statuses, {} courier statuses",
+            loaded.orderStatusNames.size(), loaded.courierStatusNames.size());
+    }
+
+    public Optional<OrderStatus> findOrderStatusById(int id) {
+        String name = snapshot().orderStatusNames.get(id);
+        return name == null ? Optional.empty() : Optional.of(new OrderStatus(id, name));
+    }
+
+    public Optional<OrderStatus> findOrderStatusByName(String name) {
+        Integer id = snapshot().orderStatusIds.get(name.toLowerCase());
+        return id == null ? Optional.empty() : findOrderStatusById(id);
+    }
+
+    /**
+     * @return The id of a status the application depends on, such as "pending".
+     * @throws IllegalStateException When the status is missing from order_statuses.
+     */
+    public int orderStatusId(String name) {
+        Integer id = snapshot().orderStatusIds.get(name.toLowerCase());
+        if (id == null) {
+            throw new IllegalStateException("Order status " + name + " is not defined");
+        }
+        return id;
+    }
+
+    /**
+     * @return Whether an order in this status is finished, i.e. delivered or cancelled.
+     */
+    public boolean isTerminalOrderStatus(int id) {
+        String name = snapshot().orderStatusNames.get(id);
+        return name != null && TERMINAL_ORDER_STATUSES.contains(name.toLowerCase());
+    }
+
+    /**
+     * @return Every order status, ordered by id.
+     */
+    public List<OrderStatus> getOrderStatuses() {
+        return snapshot().orderStatusNames.entrySet().stream()
+            .map(status -> new OrderStatus(status.getKey(), status.getValue()))
+            .collect(Collectors.toList());
+    }
+
+    public Optional<CourierStatus> findCourierStatusByName(String name) {
+        Integer id = snapshot().courierStatusIds.get(name.toLowerCase());
+        return id == null ? Optional.empty() : Optional.of(new CourierStatus(id, snapshot().courierStatusNames.get(id)));
+    }
+
+    /**
+     * @return The id of a courier status the application depends on, such as "free".
+     * @throws IllegalStateException When the status is missing from courierStatuses.
+     */
+    public int courierStatusId(String name) {
+        Integer id = snapshot().courierStatusIds.get(name.toLowerCase());
+        if (id == null) {
+            throw new IllegalStateException("Courier status " + name + " is not defined");
+        }
+        return id;
+    }
+
+    /**
+     * @return Every courier status, ordered by id.
+     */
+    public List<CourierStatus> getCourierStatuses() {
+        return snapshot().courierStatusNames.entrySet().stream()
+            .map(status -> new CourierStatus(status.getKey(), status.getValue()))
+            .collect(Collectors.toList());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = load();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        return new Snapshot(orderStatusRepository.findAll(), courierStatusRepository.findAll());
+    }
+}
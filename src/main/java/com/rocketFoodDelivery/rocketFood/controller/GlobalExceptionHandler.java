@@ -57,6 +57,33 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ApiErrorDTO> handleConflictException(ConflictException ex) {
+        ApiErrorDTO response = new ApiErrorDTO();
+        response.setError("Conflict");
+        response.setDetails(ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<ApiErrorDTO> handleTooManyRequestsException(TooManyRequestsException ex) {
+        ApiErrorDTO response = new ApiErrorDTO();
+        response.setError("Too many requests");
+        response.setDetails(ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ApiErrorDTO> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        ApiErrorDTO response = new ApiErrorDTO();
+        response.setError("Service unavailable");
+        response.setDetails(ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<ApiErrorDTO> handleRuntimeException(RuntimeException ex) {
@@ -0,0 +1,39 @@
+package com.rocketFoodDelivery.rocketFood.controller.api;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCourierStatusDTO;
+import com.rocketFoodDelivery.rocketFood.service.CourierService;
+import com.rocketFoodDelivery.rocketFood.util.ResponseBuilder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class CourierApiController {
+    private CourierService courierService;
+
+    @Autowired
+    public CourierApiController(CourierService courierService) {
+        this.courierService = courierService;
+    }
+
+    // POST /api/courier/{courier_id}/status
+    // A courier set to free becomes available to the dispatcher; any other status withdraws them.
+
+    @PostMapping("/api/courier/{courier_id}/status")
+    public ResponseEntity<Object> updateCourierStatus(
+        @PathVariable("courier_id") int courierId,
+        @RequestBody ApiCourierStatusDTO apiCourierStatusDTO) {
+
+        ApiCourierStatusDTO updatedStatus = courierService.updateCourierStatus(courierId, apiCourierStatusDTO.getStatus());
+        return ResponseBuilder.buildDirectResponse(updatedStatus);
+    }
+
+    // GET /api/couriers/status-board
+    // Number of couriers per status and per city, read from memory; ?status= also lists the couriers in that status.
+
+    @GetMapping("/api/couriers/status-board")
+    public ResponseEntity<Object> getStatusBoard(@RequestParam(value = "status", required = false) String status) {
+        return ResponseBuilder.buildOkResponse(courierService.getStatusBoard(status));
+    }
+}
@@ -1,34 +1,74 @@
 package com.rocketFoodDelivery.rocketFood.controller.api;
 
-import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderDTO;
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.IdempotencyStore;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderPageDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderRequestDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderStatusDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateOrderDTO;  
 import com.rocketFoodDelivery.rocketFood.dtos.ApiErrorDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiRestaurantRatingDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiBatchOrderResultDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiBulkOrderStatusDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiIngestionStatusDTO;
+import com.rocketFoodDelivery.rocketFood.events.OrderEventDispatcher;
+import com.rocketFoodDelivery.rocketFood.service.OrderIngestionService;
 import com.rocketFoodDelivery.rocketFood.service.OrderService;
+import com.rocketFoodDelivery.rocketFood.util.OrderCursor;
 import com.rocketFoodDelivery.rocketFood.util.ResponseBuilder;
 import com.rocketFoodDelivery.rocketFood.exception.*;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import java.util.Optional;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.Supplier;
 
 @RestController
 public class OrderApiController {
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final int MAX_BATCH_SIZE = 500;
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private OrderService orderService;
+    private ObjectMapper objectMapper;
+    private ChangeVersionTracker changeVersionTracker;
+    private IdempotencyStore idempotencyStore;
+    private OrderIngestionService orderIngestionService;
+    private OrderEventDispatcher orderEventDispatcher;
 
     @Autowired
-    public OrderApiController(OrderService orderService) {
+    public OrderApiController(OrderService orderService, ObjectMapper objectMapper,
+                              ChangeVersionTracker changeVersionTracker, IdempotencyStore idempotencyStore,
+                              OrderIngestionService orderIngestionService, OrderEventDispatcher orderEventDispatcher) {
         this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.changeVersionTracker = changeVersionTracker;
+        this.idempotencyStore = idempotencyStore;
+        this.orderIngestionService = orderIngestionService;
+        this.orderEventDispatcher = orderEventDispatcher;
     }
     
     // POST /api/order/{order_id}/status 
@@ -42,13 +82,143 @@ public class OrderApiController {
         return ResponseBuilder.buildDirectResponse(updatedStatus);
 }
 
+    // POST /api/orders/status
+    // Moves up to MAX_BATCH_SIZE orders to one status in a single statement, e.g. every order a courier picks up.
+    // Returns applied, unchanged, conflict or not_found per order id.
+
+    @PostMapping("/api/orders/status")
+    public ResponseEntity<Object> updateOrderStatuses(@RequestBody ApiBulkOrderStatusDTO apiBulkOrderStatusDTO) {
+        List<Integer> orderIds = apiBulkOrderStatusDTO.getOrderIds();
+        if (orderIds == null || orderIds.isEmpty() || orderIds.size() > MAX_BATCH_SIZE
+                || orderIds.contains(null) || apiBulkOrderStatusDTO.getStatus() == null) {
+            throw new BadRequestException("Invalid or missing parameters");
+        }
+        return ResponseBuilder.buildOkResponse(
+            orderService.updateOrderStatuses(orderIds, apiBulkOrderStatusDTO.getStatus()));
+    }
+
+    // POST /api/order/{order_id}/rating
+
+    @PostMapping("/api/order/{order_id}/rating")
+    public ResponseEntity<Object> rateOrder(
+        @PathVariable("order_id") int orderId,
+        @RequestBody ApiRestaurantRatingDTO apiRestaurantRatingDTO) {
+
+        ApiRestaurantRatingDTO rating = orderService.rateOrder(orderId, apiRestaurantRatingDTO.getRestaurant_rating());
+        return ResponseBuilder.buildDirectResponse(rating);
+    }
+
     // GET /api/orders
+    // Keyset pagination: limit defaults to DEFAULT_PAGE_SIZE and is capped at MAX_PAGE_SIZE, and next_cursor fetches the next page.
+    // Every order in one response is available as NDJSON, see streamOrdersByUserTypeAndId.
         
    @GetMapping("/api/orders")
     public ResponseEntity<Object> getOrdersByUserTypeAndId(
+        @RequestParam(value = "type", required = false) String userType,
+        @RequestParam(value = "id", required = false) String userIdStr,
+        @RequestParam(value = "limit", required = false) String limitStr,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        WebRequest webRequest) {
+
+    int userId = parseUserTypeAndId(userType, userIdStr);
+
+    int limit = DEFAULT_PAGE_SIZE;
+    if (limitStr != null) {
+        try {
+            limit = Integer.parseInt(limitStr);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid or missing parameters");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Invalid or missing parameters");
+        }
+    }
+    int afterOrderId = OrderCursor.decode(cursor);
+
+    // Parameters are validated first, so a bad request is never answered with 304
+    // The version is read before the orders, so a concurrent write can only make the ETag older than the data
+    String etag = changeVersionTracker.etag(ChangeVersionTracker.ordersOf(userType, userId), webRequest.getParameterMap());
+    if (webRequest.checkNotModified(etag)) {
+        return null;
+    }
+
+    ApiOrderPageDTO page = orderService.getOrdersPageByUserTypeAndId(userType, userId, afterOrderId, limit);
+    if (page.getOrders().isEmpty() && afterOrderId == 0) {
+        throw new ResourceNotFoundException("No orders found for " + userType + " with id " + userId);
+    }
+    return ResponseBuilder.buildPagedResponse(page.getOrders(), page.getNextCursor(), etag);
+}
+
+    // GET /api/orders/{order_id}
+
+    @GetMapping("/api/orders/{order_id}")
+    public ResponseEntity<Object> getOrderById(@PathVariable("order_id") int orderId) {
+        return ResponseBuilder.buildOkResponse(orderService.getOrderById(orderId));
+    }
+
+    // GET /api/orders/{order_id}/history
+    // Events of an order (created, status changes, courier assignment) from the order event log, oldest first.
+
+    @GetMapping("/api/orders/{order_id}/history")
+    public ResponseEntity<Object> getOrderHistory(@PathVariable("order_id") int orderId) {
+        return ResponseBuilder.buildOkResponse(orderService.getOrderHistory(orderId));
+    }
+
+    // GET /api/orders/{order_id}/events
+    // Server-Sent Events stream of the status changes of one order, instead of polling GET /api/orders/{order_id}.
+
+    @GetMapping(value = "/api/orders/{order_id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@PathVariable("order_id") int orderId) {
+        orderService.getOrderById(orderId);
+        return orderEventDispatcher.subscribe(List.of(OrderEventDispatcher.orderScope(orderId)));
+    }
+
+    // GET /api/orders/stream?type={userType}&id={id}
+    // Server-Sent Events stream of the orders created for and status changes seen by a customer, restaurant or courier.
+
+    @GetMapping(value = "/api/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEventsOf(
         @RequestParam(value = "type", required = false) String userType,
         @RequestParam(value = "id", required = false) String userIdStr) {
 
+        int userId = parseUserTypeAndId(userType, userIdStr);
+        return orderEventDispatcher.subscribe(List.of(ChangeVersionTracker.ordersOf(userType, userId)));
+    }
+
+    // GET /api/orders/cache/stats
+    // Hit, miss and eviction counters of the order cache, to size app.cache.orders.max-size.
+
+    @GetMapping("/api/orders/cache/stats")
+    public ResponseEntity<Object> getOrderCacheStats() {
+        return ResponseBuilder.buildOkResponse(orderService.getOrderCacheStats());
+    }
+
+    // GET /api/orders with Accept: application/x-ndjson
+    // Streams one JSON order per line as soon as it is built, for consumers pulling whole order histories.
+
+    @GetMapping(value = "/api/orders", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrdersByUserTypeAndId(
+        @RequestParam(value = "type", required = false) String userType,
+        @RequestParam(value = "id", required = false) String userIdStr) {
+
+    int userId = parseUserTypeAndId(userType, userIdStr);
+
+    StreamingResponseBody body = outputStream -> {
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        orderService.streamOrdersByUserTypeAndId(userType, userId, order -> {
+            try {
+                writer.writeValue(outputStream, order);
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        outputStream.flush();
+    };
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+}
+
+    private int parseUserTypeAndId(String userType, String userIdStr) {
     if (userType == null || userType.trim().isEmpty()) {
         throw new BadRequestException("Invalid or missing parameters");
     }
@@ -70,27 +240,93 @@ public class OrderApiController {
     } catch (NumberFormatException e) {
         throw new BadRequestException("Invalid or missing parameters");
     }
-
-    List<ApiOrderDTO> orders = orderService.getOrdersByUserTypeAndId(userType, userId);
-    if (orders.isEmpty()) {
-        throw new ResourceNotFoundException("No orders found for " + userType + " with id " + userId);
-    }
-    return ResponseBuilder.buildOkResponse(orders);
+    return userId;
 }
 
     // POST /api/orders
+    // With an Idempotency-Key header, retries of the same request for the same customer return the first result
+    // instead of a new order.
+    // With app.orders.ingestion.enabled the order is queued and written in a group commit: the response is the
+    // created order if its batch commits quickly, otherwise 202 with the URL of its ingestion status.
 
    @PostMapping("/api/orders")
     public ResponseEntity<Object> createOrder(
         @Valid @RequestBody ApiCreateOrderDTO apiCreateOrderDTO,
-        BindingResult bindingResult) {
+        BindingResult bindingResult,
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws IOException {
     
     if (bindingResult.hasErrors()) {
         throw new BadRequestException("Invalid or missing parameters");
-    }    
-    ApiOrderDTO createdOrder = orderService.createOrder(apiCreateOrderDTO);
-    return ResponseBuilder.buildOkResponse(createdOrder);
+    }
+    Supplier<ResponseEntity<Object>> create = orderIngestionService.isEnabled()
+        ? () -> enqueueOrder(apiCreateOrderDTO)
+        : () -> ResponseBuilder.buildOkResponse(orderService.createOrder(apiCreateOrderDTO));
+    if (idempotencyKey == null) {
+        return create.get();
+    }
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+        throw new BadRequestException("Invalid or missing parameters");
+    }
+    String fingerprint = objectMapper.writeValueAsString(apiCreateOrderDTO);
+    // Keys are only unique per customer
+    String scope = "customer-" + apiCreateOrderDTO.getCustomerId();
+    return idempotencyStore.execute(scope, idempotencyKey, fingerprint, create);
 }
 
+    private ResponseEntity<Object> enqueueOrder(ApiCreateOrderDTO apiCreateOrderDTO) {
+        if (apiCreateOrderDTO.getProducts() == null || apiCreateOrderDTO.getProducts().isEmpty()
+                || apiCreateOrderDTO.getProducts().stream().anyMatch(line -> line.getQuantity() <= 0)) {
+            throw new BadRequestException("Invalid or missing parameters");
+        }
+        OrderIngestionService.Ticket ticket = orderIngestionService.submit(apiCreateOrderDTO);
+        ApiBatchOrderResultDTO result = orderIngestionService.awaitResult(ticket);
+        if (result == null) {
+            return ResponseBuilder.buildAcceptedResponse(ticket.toStatus(), "/api/orders/ingestion/" + ticket.getId());
+        }
+        if (ApiBatchOrderResultDTO.FAILED.equals(result.getStatus())) {
+            // Only a bad request is the client's fault; a failed write is reported as a retryable 503
+            switch (result.getReason()) {
+                case ApiBatchOrderResultDTO.NOT_FOUND:
+                    throw new ResourceNotFoundException(result.getError());
+                case ApiBatchOrderResultDTO.INVALID:
+                    throw new ValidationException(result.getError());
+                default:
+                    throw new ServiceUnavailableException("Order could not be written, retry later");
+            }
+        }
+        return ResponseBuilder.buildOkResponse(result.getOrder());
+    }
+
+    // GET /api/orders/ingestion/{ticket}
+    // Outcome of an order accepted by the ingestion queue: queued, created (with order_id) or failed.
+
+    @GetMapping("/api/orders/ingestion/{ticket}")
+    public ResponseEntity<Object> getIngestionStatus(@PathVariable("ticket") String ticket) {
+        ApiIngestionStatusDTO status = orderIngestionService.getStatus(ticket);
+        if (status == null) {
+            throw new ResourceNotFoundException("Ingestion ticket " + ticket + " not found");
+        }
+        return ResponseBuilder.buildOkResponse(status);
+    }
+
+    // GET /api/orders/ingestion/metrics
+    // Queue depth, rejections and group commit batch sizes of the ingestion queue.
+
+    @GetMapping("/api/orders/ingestion/metrics")
+    public ResponseEntity<Object> getIngestionMetrics() {
+        return ResponseBuilder.buildOkResponse(orderIngestionService.getMetrics());
+    }
+
+    // POST /api/orders/batch
+    // Creates up to MAX_BATCH_SIZE orders; the response has one created/failed result per order, in request order.
+
+    @PostMapping("/api/orders/batch")
+    public ResponseEntity<Object> createOrders(@RequestBody List<ApiCreateOrderDTO> orders) {
+        if (orders == null || orders.isEmpty() || orders.size() > MAX_BATCH_SIZE || orders.contains(null)) {
+            throw new BadRequestException("Invalid or missing parameters");
+        }
+        return ResponseBuilder.buildOkResponse(orderService.createOrders(orders));
+    }
+
 }
 
@@ -1,32 +1,63 @@
 package com.rocketFoodDelivery.rocketFood.controller.api;
 
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.MenuCache;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiProductDTO;
 import com.rocketFoodDelivery.rocketFood.service.ProductService;
 import com.rocketFoodDelivery.rocketFood.util.ResponseBuilder;
 import com.rocketFoodDelivery.rocketFood.exception.ResourceNotFoundException;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 public class ProductApiController {
+    static final String MENU_VERSION_HEADER = "X-Menu-Version";
+
     private ProductService productService;
+    private ChangeVersionTracker changeVersionTracker;
 
     @Autowired
-    public ProductApiController(ProductService productService) {
+    public ProductApiController(ProductService productService, ChangeVersionTracker changeVersionTracker) {
         this.productService = productService;
+        this.changeVersionTracker = changeVersionTracker;
     }
     
     // GET /api/products?restaurant={restaurant_id}
+    // The X-Menu-Version header and the ETag change whenever the menu does.
     @GetMapping("/api/products")
-    public ResponseEntity<Object> getProductsByRestaurantId(@RequestParam("restaurant") int restaurantId) {
-        List<ApiProductDTO> products = productService.findProductsByRestaurantId(restaurantId);
-        if (products.isEmpty()) {
+    public ResponseEntity<Object> getProductsByRestaurantId(@RequestParam("restaurant") int restaurantId,
+                                                            WebRequest webRequest) {
+        String scope = ChangeVersionTracker.menuOf(restaurantId);
+        if (webRequest.checkNotModified(changeVersionTracker.etag(scope, webRequest.getParameterMap()))) {
+            return null;
+        }
+        MenuCache.Menu menu = productService.getMenu(restaurantId);
+        if (menu.getProducts().isEmpty()) {
             throw new ResourceNotFoundException("Products for restaurant with id " + restaurantId + " not found");
         }
-        return ResponseBuilder.buildOkResponse(products);
+        return ResponseBuilder.buildOkResponse(menu.getProducts(), changeVersionTracker.etag(scope, menu.getVersion(), webRequest.getParameterMap()),
+            MENU_VERSION_HEADER, Long.toString(menu.getVersion()));
+    }
+
+    // POST /api/products/bulk?restaurant={restaurant_id}
+    // Body: JSON array of {name, description, cost}; read as a stream and inserted in one transaction.
+    @PostMapping("/api/products/bulk")
+    public ResponseEntity<Object> importProducts(@RequestParam("restaurant") int restaurantId,
+                                                 HttpServletRequest request) throws IOException {
+        return ResponseBuilder.buildCreatedResponse(productService.importProducts(restaurantId, request.getInputStream()));
+    }
+
+    // GET /api/products/cache/stats
+    @GetMapping("/api/products/cache/stats")
+    public ResponseEntity<Object> getMenuCacheStats() {
+        return ResponseBuilder.buildOkResponse(productService.getMenuCacheStats());
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.rocketFoodDelivery.rocketFood.controller.api;
 
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateRestaurantDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiRestaurantDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiErrorDTO;
@@ -15,16 +16,22 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Optional;
 
 @RestController
 public class RestaurantApiController {
+    static final int DEFAULT_TOP_SIZE = 10;
+    static final int MAX_TOP_SIZE = 100;
+
     private RestaurantService restaurantService;
+    private ChangeVersionTracker changeVersionTracker;
 
     @Autowired
-    public RestaurantApiController(RestaurantService restaurantService) {
+    public RestaurantApiController(RestaurantService restaurantService, ChangeVersionTracker changeVersionTracker) {
         this.restaurantService = restaurantService;
+        this.changeVersionTracker = changeVersionTracker;
     }
 
      /**
@@ -34,18 +41,62 @@ public class RestaurantApiController {
     @GetMapping("/api/restaurants")
     public ResponseEntity<Object> getAllRestaurants(
         @RequestParam(name = "rating", required = false) Integer rating,
-        @RequestParam(name = "price_range", required = false) Integer priceRange) {
-        return ResponseBuilder.buildOkResponse(restaurantService.findRestaurantsByRatingAndPriceRange(rating, priceRange));
+        @RequestParam(name = "price_range", required = false) Integer priceRange,
+        WebRequest webRequest) {
+        String etag = changeVersionTracker.etag(ChangeVersionTracker.RESTAURANTS, webRequest.getParameterMap());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseBuilder.buildOkResponse(restaurantService.findRestaurantsByRatingAndPriceRange(rating, priceRange), etag);
     }
 
 
+    /**
+     * Returns the best rated restaurants of a price range (GET), e.g. /api/restaurants/top?price_range=2&n=20.
+     */
+    @GetMapping("/api/restaurants/top")
+    public ResponseEntity<Object> getTopRatedRestaurants(
+        @RequestParam(name = "price_range", required = false) Integer priceRange,
+        @RequestParam(name = "n", required = false) Integer n,
+        WebRequest webRequest) {
+        int limit = n != null ? n : DEFAULT_TOP_SIZE;
+        if (priceRange == null || priceRange < 1 || priceRange > 3 || limit <= 0 || limit > MAX_TOP_SIZE) {
+            throw new BadRequestException("Invalid or missing parameters");
+        }
+        String etag = changeVersionTracker.etag(ChangeVersionTracker.RESTAURANTS, webRequest.getParameterMap());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseBuilder.buildOkResponse(restaurantService.findTopRatedRestaurants(priceRange, limit), etag);
+    }
+
+    /**
+     * Compares the in-memory restaurant index with the database (GET). Read-only.
+     */
+    @GetMapping("/api/restaurants/index/check")
+    public ResponseEntity<Object> checkRestaurantIndex() {
+        return ResponseBuilder.buildOkResponse(restaurantService.checkRestaurantIndex(false));
+    }
+
+    /**
+     * Compares the in-memory restaurant index with the database and rebuilds it when they differ (POST).
+     */
+    @PostMapping("/api/restaurants/index/repair")
+    public ResponseEntity<Object> repairRestaurantIndex() {
+        return ResponseBuilder.buildOkResponse(restaurantService.checkRestaurantIndex(true));
+    }
+
     
     //  * Retrieves details for a restaurant  */
     @GetMapping("/api/restaurants/{id}")
-    public ResponseEntity<Object> getRestaurantById(@PathVariable int id) {
+    public ResponseEntity<Object> getRestaurantById(@PathVariable int id, WebRequest webRequest) {
+        String etag = changeVersionTracker.etag(ChangeVersionTracker.RESTAURANTS, webRequest.getParameterMap());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Optional<ApiRestaurantDTO> restaurantWithRatingOptional = restaurantService.findRestaurantWithAverageRatingById(id);
         if (!restaurantWithRatingOptional.isPresent()) throw new ResourceNotFoundException(String.format("Restaurant with id %d not found", id));
-        return ResponseBuilder.buildOkResponse(restaurantWithRatingOptional.get());
+        return ResponseBuilder.buildOkResponse(restaurantWithRatingOptional.get(), etag);
     }
 
 
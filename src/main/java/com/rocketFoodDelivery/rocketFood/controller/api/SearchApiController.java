@@ -0,0 +1,35 @@
+package com.rocketFoodDelivery.rocketFood.controller.api;
+
+import com.rocketFoodDelivery.rocketFood.exception.BadRequestException;
+import com.rocketFoodDelivery.rocketFood.service.SearchService;
+import com.rocketFoodDelivery.rocketFood.util.ResponseBuilder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class SearchApiController {
+    static final int DEFAULT_RESULT_SIZE = 20;
+    static final int MAX_RESULT_SIZE = 100;
+
+    private SearchService searchService;
+
+    @Autowired
+    public SearchApiController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // GET /api/search?q={text}&limit={n}
+    // Matches restaurant names and product names/descriptions; the last word is matched as a prefix.
+    @GetMapping("/api/search")
+    public ResponseEntity<Object> search(
+        @RequestParam(name = "q", required = false) String query,
+        @RequestParam(name = "limit", required = false) Integer limit) {
+        int resultSize = limit != null ? limit : DEFAULT_RESULT_SIZE;
+        if (query == null || query.isBlank() || resultSize <= 0 || resultSize > MAX_RESULT_SIZE) {
+            throw new BadRequestException("Invalid or missing parameters");
+        }
+        return ResponseBuilder.buildOkResponse(searchService.search(query, resultSize));
+    }
+}
@@ -0,0 +1,42 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiBatchOrderResultDTO {
+    public static final String CREATED = "created";
+    public static final String FAILED = "failed";
+
+    // Why an order failed: a customer, restaurant or product that does not exist, a request that is not valid,
+    // or an error writing it that a retry may not hit
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID = "invalid";
+    public static final String ERROR = "error";
+
+    // Position of the order in the request
+    private int index;
+
+    private String status;
+
+    private ApiOrderDTO order;
+
+    private String reason;
+
+    private String error;
+
+    public static ApiBatchOrderResultDTO created(int index, ApiOrderDTO order) {
+        return new ApiBatchOrderResultDTO(index, CREATED, order, null, null);
+    }
+
+    public static ApiBatchOrderResultDTO failed(int index, String reason, String error) {
+        return new ApiBatchOrderResultDTO(index, FAILED, null, reason, error);
+    }
+}
@@ -0,0 +1,18 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiBulkImportDTO {
+    @JsonProperty("restaurant_id")
+    private int restaurantId;
+
+    private int imported;
+}
@@ -0,0 +1,20 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiBulkOrderStatusDTO {
+    @JsonProperty("order_ids")
+    private List<Integer> orderIds;
+
+    private String status;
+}
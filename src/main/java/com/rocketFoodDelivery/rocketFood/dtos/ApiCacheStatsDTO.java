@@ -0,0 +1,29 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiCacheStatsDTO {
+    private int size;
+
+    @JsonProperty("max_size")
+    private int maxSize;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private long invalidations;
+
+    @JsonProperty("hit_ratio")
+    private double hitRatio;
+}
@@ -0,0 +1,30 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiCourierStatusBoardDTO {
+    private long total;
+
+    // status name -> number of couriers
+    private Map<String, Long> statuses;
+
+    // city -> status name -> number of couriers
+    private Map<String, Map<String, Long>> cities;
+
+    // Only when a status is asked for: the couriers currently in it
+    @JsonProperty("courier_ids")
+    private List<Integer> courierIds;
+}
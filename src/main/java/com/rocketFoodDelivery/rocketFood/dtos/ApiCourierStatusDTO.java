@@ -0,0 +1,15 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiCourierStatusDTO {
+    // One of the courierStatuses names: free, busy, full or offline
+    private String status;
+}
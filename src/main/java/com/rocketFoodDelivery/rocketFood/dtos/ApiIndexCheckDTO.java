@@ -0,0 +1,24 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiIndexCheckDTO {
+    private boolean consistent;
+
+    @JsonProperty("database_rows")
+    private int databaseRows;
+
+    private List<String> mismatches;
+
+    private boolean repaired;
+}
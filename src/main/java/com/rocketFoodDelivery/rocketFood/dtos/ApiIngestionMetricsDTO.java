@@ -0,0 +1,39 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiIngestionMetricsDTO {
+    private boolean enabled;
+
+    @JsonProperty("queue_depth")
+    private int queueDepth;
+
+    @JsonProperty("queue_capacity")
+    private int queueCapacity;
+
+    private long submitted;
+
+    private long rejected;
+
+    private long batches;
+
+    @JsonProperty("orders_processed")
+    private long ordersProcessed;
+
+    @JsonProperty("last_batch_size")
+    private int lastBatchSize;
+
+    @JsonProperty("max_batch_size")
+    private int maxBatchSize;
+
+    @JsonProperty("average_batch_size")
+    private double averageBatchSize;
+}
@@ -0,0 +1,27 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiIngestionStatusDTO {
+    public static final String QUEUED = "queued";
+
+    private String ticket;
+
+    // queued, created or failed
+    private String status;
+
+    @JsonProperty("order_id")
+    private Integer orderId;
+
+    private String error;
+}
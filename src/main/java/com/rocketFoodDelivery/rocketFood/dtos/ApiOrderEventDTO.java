@@ -0,0 +1,39 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiOrderEventDTO {
+    public static final String CREATED = "created";
+    public static final String STATUS = "status";
+    public static final String COURIER_ASSIGNED = "courier_assigned";
+
+    // created, status or courier_assigned
+    private String type;
+
+    @JsonProperty("order_id")
+    private int orderId;
+
+    @JsonProperty("customer_id")
+    private int customerId;
+
+    @JsonProperty("restaurant_id")
+    private int restaurantId;
+
+    @JsonProperty("courier_id")
+    private Integer courierId;
+
+    private String status;
+
+    // Epoch milliseconds at which the change was committed
+    private long timestamp;
+}
@@ -0,0 +1,33 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiOrderHistoryEntryDTO {
+    public static final String CREATED = "created";
+    public static final String STATUS = "status";
+    public static final String COURIER_ASSIGNED = "courier_assigned";
+
+    private long sequence;
+
+    // created, status or courier_assigned
+    private String type;
+
+    // Status of the order after the event
+    private String status;
+
+    @JsonProperty("courier_id")
+    private Integer courierId;
+
+    // Epoch milliseconds at which the event was committed
+    private long timestamp;
+}
@@ -0,0 +1,19 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/* One keyset page of orders, along with the cursor of the next page (null on the last page). */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiOrderPageDTO {
+    private List<ApiOrderDTO> orders;
+
+    private String nextCursor;
+}
@@ -0,0 +1,29 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiOrderStatusResultDTO {
+    public static final String APPLIED = "applied";
+    public static final String UNCHANGED = "unchanged";
+    public static final String CONFLICT = "conflict";
+    public static final String NOT_FOUND = "not_found";
+
+    @JsonProperty("order_id")
+    private int orderId;
+
+    // applied, unchanged (already in the status), conflict or not_found
+    private String result;
+
+    // Status of the order after the update, null when it does not exist
+    private String status;
+}
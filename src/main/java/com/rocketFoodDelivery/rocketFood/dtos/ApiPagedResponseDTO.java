@@ -0,0 +1,18 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+// Same envelope as ApiResponseDTO, plus the opaque cursor of the next page for paginated routes.
+public class ApiPagedResponseDTO {
+    private String message;
+    private Object data;
+
+    @JsonProperty("next_cursor")
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    private String nextCursor;
+}
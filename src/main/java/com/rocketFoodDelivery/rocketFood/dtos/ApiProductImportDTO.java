@@ -0,0 +1,16 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiProductImportDTO {
+    private String name;
+    private String description;
+    private Integer cost;
+}
@@ -0,0 +1,22 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiSearchProductDTO {
+    private int id;
+
+    private String name;
+
+    private int cost;
+
+    @JsonProperty("restaurant_id")
+    private int restaurantId;
+}
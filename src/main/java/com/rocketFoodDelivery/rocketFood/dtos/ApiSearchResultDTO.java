@@ -0,0 +1,18 @@
+package com.rocketFoodDelivery.rocketFood.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApiSearchResultDTO {
+    private List<ApiRestaurantDTO> restaurants;
+
+    private List<ApiSearchProductDTO> products;
+}
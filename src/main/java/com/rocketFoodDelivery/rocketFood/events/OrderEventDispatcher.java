@@ -0,0 +1,307 @@
+package com.rocketFoodDelivery.rocketFood.events;
+
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderEventDTO;
+import com.rocketFoodDelivery.rocketFood.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process fan-out of order events to Server-Sent Events subscribers.
+ *
+ * Subscribers are async {@link SseEmitter}s, so an idle connection holds no thread. Each subscriber has a
+ * bounded queue: publishing only offers the event to the queues of the matching subscribers and schedules
+ * their delivery on a small shared pool, so publishers never wait on a client. A subscriber whose queue is
+ * full is too slow to keep up and is disconnected; clients are expected to reconnect and re-read the
+ * orders they follow.
+ *
+ * A send to a client that stopped reading blocks its delivery thread, so a watchdog disconnects any
+ * subscriber whose send has been running for longer than app.events.send-timeout-millis and interrupts
+ * the stalled thread; a handful of stuck clients cannot hold the whole pool.
+ */
+@Component
+public class OrderEventDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderEventDispatcher.class);
+    private static final Message HEARTBEAT = new Message(null, null, null);
+
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMillis;
+    private final long sendTimeoutNanos;
+    private final ExecutorService deliveryPool;
+    private final ScheduledExecutorService heartbeats;
+
+    // Scope -> subscribers following it, see orderScope and ChangeVersionTracker.ordersOf
+    private final ConcurrentHashMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> connected = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * An event as queued for delivery. SSE event builders are stateful, so one is built per send.
+     */
+    private static final class Message {
+        private final String id;
+        private final String name;
+        private final ApiOrderEventDTO data;
+
+        private Message(String id, String name, ApiOrderEventDTO data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (data == null) {
+                // Comments keep idle connections open through proxies and reveal clients that went away
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * A connected client, its pending events and whether a delivery task is scheduled for it.
+     */
+    final class Subscriber {
+        private final SseEmitter emitter;
+        private final List<String> scopes;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Set while a send is in progress, for the watchdog
+        private volatile Thread sendingThread;
+        private volatile long sendStartedNanos;
+        private volatile boolean completePending;
+
+        private Subscriber(SseEmitter emitter, List<String> scopes) {
+            this.emitter = emitter;
+            this.scopes = scopes;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private void offer(Message event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                dropped.increment();
+                LOGGER.debug("Disconnecting slow event subscriber of {}", scopes);
+                close(true);
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                deliveryPool.execute(this::deliver);
+            }
+        }
+
+        // Runs on the delivery pool; at most one task per subscriber at a time
+        private void deliver() {
+            // Clears an interrupt the watchdog aimed at a send that completed just in time
+            Thread.interrupted();
+            do {
+                Message event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    sendStartedNanos = System.nanoTime();
+                    sendingThread = Thread.currentThread();
+                    try {
+                        emitter.send(event.toEvent());
+                    } catch (IOException | IllegalStateException e) {
+                        // The watchdog may have closed the subscriber already; either way nobody else completes it
+                        close(false);
+                        completePending = false;
+                        Thread.interrupted();
+                        emitter.completeWithError(e);
+                        scheduled.set(false);
+                        return;
+                    } finally {
+                        sendingThread = null;
+                    }
+                }
+                if (completePending) {
+                    completePending = false;
+                    Thread.interrupted();
+                    emitter.complete();
+                }
+                scheduled.set(false);
+            } while ((!queue.isEmpty() || completePending) && scheduled.compareAndSet(false, true));
+        }
+
+        // Runs on the watchdog thread
+        private void abortStalledSend(long now) {
+            Thread thread = sendingThread;
+            if (thread == null || now - sendStartedNanos < sendTimeoutNanos) {
+                return;
+            }
+            dropped.increment();
+            LOGGER.debug("Disconnecting stalled event subscriber of {}", scopes);
+            close(true);
+            if (sendingThread == thread) {
+                thread.interrupt();
+            }
+        }
+
+        private void close(boolean complete) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            connected.remove(this);
+            for (String scope : scopes) {
+                subscribers.computeIfPresent(scope, (key, followers) -> {
+                    followers.remove(this);
+                    return followers.isEmpty() ? null : followers;
+                });
+            }
+            subscriberCount.decrementAndGet();
+            queue.clear();
+            if (complete) {
+                // The emitter is locked while a send is in progress, so the delivery task completes it
+                completePending = true;
+                if (scheduled.compareAndSet(false, true)) {
+                    deliveryPool.execute(this::deliver);
+                }
+            }
+        }
+    }
+
+    @Autowired
+    public OrderEventDispatcher(@Value("${app.events.queue-capacity:64}") int queueCapacity,
+                                @Value("${app.events.max-subscribers:50000}") int maxSubscribers,
+                                @Value("${app.events.dispatch-threads:4}") int dispatchThreads,
+                                @Value("${app.events.emitter-timeout-seconds:1800}") long emitterTimeoutSeconds,
+                                @Value("${app.events.heartbeat-seconds:25}") long heartbeatSeconds,
+                                @Value("${app.events.send-timeout-millis:10000}") long sendTimeoutMillis) {
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = TimeUnit.SECONDS.toMillis(emitterTimeoutSeconds);
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.deliveryPool = Executors.newFixedThreadPool(dispatchThreads, daemonThreads("order-events-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemonThreads("order-events-heartbeat-"));
+        if (heartbeatSeconds > 0) {
+            heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+        if (sendTimeoutMillis > 0) {
+            long checkMillis = Math.max(1, sendTimeoutMillis / 2);
+            heartbeats.scheduleAtFixedRate(this::abortStalledSends, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Scope of the events of a single order.
+     */
+    public static String orderScope(int orderId) {
+        return "order-" + orderId;
+    }
+
+    /**
+     * Opens an event stream following the given scopes.
+     *
+     * @throws TooManyRequestsException When app.events.max-subscribers streams are already open.
+     */
+    public SseEmitter subscribe(List<String> scopes) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        register(emitter, scopes);
+        return emitter;
+    }
+
+    Subscriber register(SseEmitter emitter, List<String> scopes) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManyRequestsException("Too many open event streams, retry later");
+        }
+        Subscriber subscriber = new Subscriber(emitter, scopes);
+        emitter.onCompletion(() -> subscriber.close(false));
+        emitter.onTimeout(() -> subscriber.close(true));
+        emitter.onError(error -> subscriber.close(false));
+        connected.add(subscriber);
+        for (String scope : scopes) {
+            subscribers.computeIfAbsent(scope, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        return subscriber;
+    }
+
+    /**
+     * Queues an event for every subscriber of the order or of one of its owners. Never blocks.
+     */
+    public void publish(ApiOrderEventDTO event) {
+        Message message = new Message(Long.toString(sequence.incrementAndGet()), event.getType(), event);
+        Set<Subscriber> recipients = new LinkedHashSet<>();
+        collect(recipients, orderScope(event.getOrderId()));
+        collect(recipients, ChangeVersionTracker.ordersOf("customer", event.getCustomerId()));
+        collect(recipients, ChangeVersionTracker.ordersOf("restaurant", event.getRestaurantId()));
+        if (event.getCourierId() != null) {
+            collect(recipients, ChangeVersionTracker.ordersOf("courier", event.getCourierId()));
+        }
+        for (Subscriber recipient : recipients) {
+            recipient.offer(message);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * @return The number of subscribers disconnected for falling behind.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        connected.forEach(subscriber -> subscriber.close(true));
+        deliveryPool.shutdown();
+    }
+
+    // A subscriber following both an order and its customer gets each event once
+    private void collect(Set<Subscriber> recipients, String scope) {
+        Set<Subscriber> followers = subscribers.get(scope);
+        if (followers != null) {
+            recipients.addAll(followers);
+        }
+    }
+
+    private void sendHeartbeats() {
+        connected.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    private void abortStalledSends() {
+        long now = System.nanoTime();
+        connected.forEach(subscriber -> subscriber.abortStalledSend(now));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,298 @@
+package com.rocketFoodDelivery.rocketFood.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only history of order events (app.events.log.enabled), stored as fixed-width
+ * {@link OrderEventRecord}s in memory-mapped segment files of app.events.log.segment-records records each.
+ * Segment files are named after the sequence number of their first record.
+ *
+ * Appending only offers the record to a bounded queue; a single writer thread copies records into the
+ * mapped segment, rolls to a new segment when the current one is full, flushes to disk every
+ * app.events.log.force-interval-millis and hands every written record to the followers registered through
+ * {@link #replayAndFollow(Consumer)}. When the queue is full the record is dropped and counted rather than
+ * making the request thread wait.
+ *
+ * On startup the end of the last segment is found by scanning for the first record that is missing or fails
+ * its checksum, so records torn by a crash are overwritten.
+ */
+@Component
+public class OrderEventLog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderEventLog.class);
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final long POLL_MILLIS = 100;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final long forceIntervalMillis;
+    private final BlockingQueue<Object> queue;
+    private final LongAdder dropped = new LongAdder();
+
+    // Only used by the writer thread once it is started
+    private final List<Consumer<OrderEventRecord>> followers = new ArrayList<>();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentBase;
+    private int recordIndex;
+    private boolean dirty;
+    private long lastForce;
+
+    private volatile long nextSequence;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public OrderEventLog(@Value("${app.events.log.enabled:false}") boolean enabled,
+                         @Value("${app.events.log.dir:/var/lib/rocketfood/order-events}") String directory,
+                         @Value("${app.events.log.segment-records:1048576}") int segmentRecords,
+                         @Value("${app.events.log.queue-capacity:65536}") int queueCapacity,
+                         @Value("${app.events.log.force-interval-millis:1000}") long forceIntervalMillis) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.forceIntervalMillis = forceIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Maps the last segment, finds where writing stopped and starts the writer thread.
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled || running) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            mapSegment(0);
+        } else {
+            mapSegment(baseOf(segments.get(segments.size() - 1)));
+            while (recordIndex < segmentRecords
+                    && OrderEventRecord.readFrom(segment, recordIndex * OrderEventRecord.SIZE, segmentBase + recordIndex) != null) {
+                recordIndex++;
+            }
+        }
+        nextSequence = segmentBase + recordIndex;
+        running = true;
+        writer = new Thread(this::write, "order-event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        LOGGER.info("Order event log opened in {}: {} segments, next sequence {}", directory, Math.max(segments.size(), 1), nextSequence);
+    }
+
+    /**
+     * Queues an event for the writer thread. Never blocks.
+     *
+     * @param record The event; its sequence number is assigned when it is written.
+     * @return Whether the record was accepted.
+     */
+    public boolean append(OrderEventRecord record) {
+        if (!running) {
+            return false;
+        }
+        if (!queue.offer(record)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads every record from the given sequence number on, in order, straight from the segment files.
+     *
+     * @return The number of records read.
+     */
+    public long replay(long fromSequence, Consumer<OrderEventRecord> consumer) throws IOException {
+        long count = 0;
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            long base = baseOf(segments.get(i));
+            if (i + 1 < segments.size() && baseOf(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            try (FileChannel readChannel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                int records = (int) (readChannel.size() / OrderEventRecord.SIZE);
+                for (int index = (int) Math.max(0, fromSequence - base); index < records; index++) {
+                    OrderEventRecord record = OrderEventRecord.readFrom(buffer, index * OrderEventRecord.SIZE, base + index);
+                    if (record == null) {
+                        break;
+                    }
+                    consumer.accept(record);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replays the whole log into a projection and then keeps it up to date with every record written afterwards.
+     * Runs on the writer thread, so the projection sees every record exactly once and in order.
+     * Returns once the replay is done; does nothing when the log is disabled. Calling it again with the same
+     * follower replays the log to it again but does not register it twice.
+     *
+     * @return The number of records replayed.
+     */
+    public long replayAndFollow(Consumer<OrderEventRecord> follower) {
+        if (!running) {
+            return 0;
+        }
+        CompletableFuture<Long> replayed = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                force();
+                replayed.complete(replay(0, follower));
+                // Replaying again for a follower that is already registered must not deliver records twice
+                if (!followers.contains(follower)) {
+                    followers.add(follower);
+                }
+            } catch (IOException | RuntimeException e) {
+                replayed.completeExceptionally(e);
+            }
+        };
+        try {
+            queue.put(task);
+            return replayed.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying the order event log", e);
+        }
+    }
+
+    /**
+     * @return The sequence number the next written record will get.
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * @return The number of records dropped because the writer fell behind.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops the writer once the queued records are written, and flushes the current segment.
+     */
+    @PreDestroy
+    public synchronized void close() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        force();
+        channel.close();
+    }
+
+    private void write() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Object entry = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (entry instanceof OrderEventRecord) {
+                    writeRecord((OrderEventRecord) entry);
+                } else if (entry instanceof Runnable) {
+                    ((Runnable) entry).run();
+                }
+                if (dirty && System.currentTimeMillis() - lastForce >= forceIntervalMillis) {
+                    force();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Order event log write failed", e);
+            }
+        }
+    }
+
+    private void writeRecord(OrderEventRecord pending) throws IOException {
+        if (recordIndex == segmentRecords) {
+            force();
+            channel.close();
+            mapSegment(segmentBase + segmentRecords);
+        }
+        OrderEventRecord record = pending.withSequence(segmentBase + recordIndex);
+        record.writeTo(segment, recordIndex * OrderEventRecord.SIZE);
+        recordIndex++;
+        nextSequence = record.getSequence() + 1;
+        dirty = true;
+        for (Consumer<OrderEventRecord> follower : followers) {
+            try {
+                follower.accept(record);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Order event log follower failed on record {}", record.getSequence(), e);
+            }
+        }
+    }
+
+    // Creates (zero-filled) or reopens the segment starting at the given sequence number
+    private void mapSegment(long base) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * OrderEventRecord.SIZE);
+        segmentBase = base;
+        recordIndex = 0;
+    }
+
+    private void force() {
+        if (segment != null && dirty) {
+            segment.force();
+            dirty = false;
+        }
+        lastForce = System.currentTimeMillis();
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long baseOf(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
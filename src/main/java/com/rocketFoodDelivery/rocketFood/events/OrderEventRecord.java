@@ -0,0 +1,133 @@
+package com.rocketFoodDelivery.rocketFood.events;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * One entry of the {@link OrderEventLog}, stored as a fixed-width 32 byte record:
+ *
+ * <pre>
+ *  0  timestamp      long  epoch milliseconds
+ *  8  order_id       int
+ * 12  customer_id    int
+ * 16  restaurant_id  int
+ * 20  courier_id     int   0 when no courier is assigned
+ * 24  type           byte  CREATED, STATUS_CHANGED or COURIER_ASSIGNED
+ * 25  status_id      byte  status of the order after the event
+ * 26  reserved       short
+ * 28  checksum       int   CRC32C of bytes 0-27
+ * </pre>
+ *
+ * A record's sequence number is its position in the log and is not stored. Segments are zero-filled
+ * when created, so a zero type or a checksum mismatch marks the end of the written records.
+ */
+public final class OrderEventRecord {
+    public static final int SIZE = 32;
+
+    public static final byte CREATED = 1;
+    public static final byte STATUS_CHANGED = 2;
+    public static final byte COURIER_ASSIGNED = 3;
+
+    private static final int CHECKSUM_OFFSET = 28;
+
+    private final long sequence;
+    private final long timestamp;
+    private final byte type;
+    private final int orderId;
+    private final int customerId;
+    private final int restaurantId;
+    private final int courierId;
+    private final int statusId;
+
+    public OrderEventRecord(long sequence, long timestamp, byte type, int orderId, int customerId,
+                            int restaurantId, Integer courierId, int statusId) {
+        if (type < CREATED || type > COURIER_ASSIGNED) {
+            throw new IllegalArgumentException("Unknown order event type " + type);
+        }
+        if (statusId < 0 || statusId > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Status id " + statusId + " does not fit the event record");
+        }
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.restaurantId = restaurantId;
+        this.courierId = courierId != null ? courierId : 0;
+        this.statusId = statusId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public int getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * @return The courier of the order, or null when none is assigned.
+     */
+    public Integer getCourierId() {
+        return courierId != 0 ? courierId : null;
+    }
+
+    public int getStatusId() {
+        return statusId;
+    }
+
+    OrderEventRecord withSequence(long sequence) {
+        return new OrderEventRecord(sequence, timestamp, type, orderId, customerId, restaurantId, getCourierId(), statusId);
+    }
+
+    /**
+     * Writes the record at the given byte offset of a segment.
+     */
+    void writeTo(ByteBuffer segment, int offset) {
+        segment.putLong(offset, timestamp);
+        segment.putInt(offset + 8, orderId);
+        segment.putInt(offset + 12, customerId);
+        segment.putInt(offset + 16, restaurantId);
+        segment.putInt(offset + 20, courierId);
+        segment.put(offset + 24, type);
+        segment.put(offset + 25, (byte) statusId);
+        segment.putShort(offset + 26, (short) 0);
+        segment.putInt(offset + CHECKSUM_OFFSET, checksum(segment, offset));
+    }
+
+    /**
+     * Reads the record at the given byte offset of a segment.
+     *
+     * @return The record, or null if no complete record was written there.
+     */
+    static OrderEventRecord readFrom(ByteBuffer segment, int offset, long sequence) {
+        byte type = segment.get(offset + 24);
+        if (type < CREATED || type > COURIER_ASSIGNED || segment.getInt(offset + CHECKSUM_OFFSET) != checksum(segment, offset)) {
+            return null;
+        }
+        return new OrderEventRecord(sequence, segment.getLong(offset), type, segment.getInt(offset + 8),
+            segment.getInt(offset + 12), segment.getInt(offset + 16), segment.getInt(offset + 20), segment.get(offset + 25));
+    }
+
+    private static int checksum(ByteBuffer segment, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(offset, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,116 @@
+package com.rocketFoodDelivery.rocketFood.events;
+
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * In-memory history of every order, rebuilt from the {@link OrderEventLog} instead of the database.
+ * {@link #rebuild()} replays the log once at startup and then follows it, so the history includes
+ * every event written since.
+ *
+ * Only the app.events.history.max-finished-orders most recently delivered or cancelled orders are kept;
+ * older finished orders are evicted, so the projection is bounded by the open orders plus that number.
+ * Finished orders get no further events, so an evicted history is never brought back incomplete.
+ */
+@Component
+public class OrderHistoryProjection {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderHistoryProjection.class);
+    private static final OrderEventRecord[] NO_EVENTS = new OrderEventRecord[0];
+
+    private final OrderEventLog orderEventLog;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final int maxFinishedOrders;
+    // Registered with the log once, however often the projection is rebuilt
+    private final Consumer<OrderEventRecord> follower = this::apply;
+
+    // Order id -> its events in log order; arrays are replaced, never modified, so readers need no lock
+    private final ConcurrentHashMap<Integer, OrderEventRecord[]> histories = new ConcurrentHashMap<>();
+    // Finished orders, oldest first, for eviction
+    private final ConcurrentLinkedQueue<Integer> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+
+    @Autowired
+    public OrderHistoryProjection(OrderEventLog orderEventLog, ReferenceDataRegistry referenceDataRegistry,
+                                  @Value("${app.events.history.max-finished-orders:100000}") int maxFinishedOrders) {
+        this.orderEventLog = orderEventLog;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.maxFinishedOrders = maxFinishedOrders;
+    }
+
+    /**
+     * Replays the event log into the projection and keeps following it.
+     *
+     * @return The number of events replayed.
+     */
+    public long rebuild() {
+        histories.clear();
+        finished.clear();
+        finishedCount.set(0);
+        long start = System.nanoTime();
+        long replayed = orderEventLog.replayAndFollow(follower);
+        LOGGER.info("Order history rebuilt from {} events of {} orders in {} ms",
+            replayed, histories.size(), (System.nanoTime() - start) / 1_000_000);
+        return replayed;
+    }
+
+    // Records followed between clearing and replaying in rebuild() come again in the replay, so a record
+    // already in the history is skipped, and records are kept in sequence order whatever order they come in
+    void apply(OrderEventRecord record) {
+        boolean[] added = new boolean[1];
+        histories.compute(record.getOrderId(), (orderId, events) -> {
+            if (events == null) {
+                added[0] = true;
+                return new OrderEventRecord[] { record };
+            }
+            int index = events.length;
+            while (index > 0 && events[index - 1].getSequence() > record.getSequence()) {
+                index--;
+            }
+            if (index > 0 && events[index - 1].getSequence() == record.getSequence()) {
+                return events;
+            }
+            OrderEventRecord[] merged = new OrderEventRecord[events.length + 1];
+            System.arraycopy(events, 0, merged, 0, index);
+            merged[index] = record;
+            System.arraycopy(events, index, merged, index + 1, events.length - index);
+            added[0] = true;
+            return merged;
+        });
+        if (added[0] && record.getType() == OrderEventRecord.STATUS_CHANGED
+                && referenceDataRegistry.isTerminalOrderStatus(record.getStatusId())) {
+            finished.add(record.getOrderId());
+            if (finishedCount.incrementAndGet() > maxFinishedOrders) {
+                evictOldestFinished();
+            }
+        }
+    }
+
+    private void evictOldestFinished() {
+        Integer oldest = finished.poll();
+        if (oldest != null) {
+            finishedCount.decrementAndGet();
+            histories.remove(oldest);
+        }
+    }
+
+    /**
+     * @return The events of an order, oldest first; empty when none were logged or the order was evicted.
+     */
+    public List<OrderEventRecord> getHistory(int orderId) {
+        return List.of(histories.getOrDefault(orderId, NO_EVENTS));
+    }
+
+    public int size() {
+        return histories.size();
+    }
+}
@@ -0,0 +1,359 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over restaurant names and product names and descriptions, for GET /api/search.
+ *
+ * Text is lower-cased, stripped of accents and split on anything that is not a letter or digit. Postings are
+ * BitSets of ids in a sorted map, so a query token is matched exactly and the last query token also as a prefix
+ * (autocomplete) with one range scan. A document matches when it matches every token of the query.
+ *
+ * A short prefix such as "d" can expand to most of the tokens of the index. Past MAX_PREFIX_EXPANSION tokens,
+ * the prefix is no longer resolved to postings: candidate ids are walked in order and each one's own tokens are
+ * checked, stopping as soon as {@code limit} matches are found. Prefixes with that many tokens match many
+ * documents, so the walk ends early.
+ *
+ * The index is loaded once at startup. Writes that arrive between {@link #beginRebuild()} and
+ * {@link #rebuild(List, List)} are replayed on top of the loaded snapshot, so a snapshot read before a concurrent
+ * write cannot drop it.
+ */
+@Component
+public class CatalogSearchIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    static final int MAX_PREFIX_EXPANSION = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Postings<SearchRestaurant> restaurants = new Postings<>(restaurant -> restaurant.getName());
+    private final Postings<SearchProduct> products =
+        new Postings<>(product -> product.getName() + " " + (product.getDescription() != null ? product.getDescription() : ""));
+    private final Map<Integer, Set<Integer>> productIdsByRestaurant = new HashMap<>();
+    private List<Runnable> writesDuringRebuild; // Guarded by the write lock
+    private volatile boolean ready;
+
+    public static final class SearchRestaurant {
+        private final int id;
+        private final String name;
+
+        public SearchRestaurant(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+    }
+
+    public static final class SearchProduct {
+        private final int id;
+        private final int restaurantId;
+        private final String name;
+        private final String description;
+        private final int cost;
+
+        public SearchProduct(int id, int restaurantId, String name, String description, int cost) {
+            this.id = id;
+            this.restaurantId = restaurantId;
+            this.name = name;
+            this.description = description;
+            this.cost = cost;
+        }
+
+        public int getId() { return id; }
+        public int getRestaurantId() { return restaurantId; }
+        public String getName() { return name; }
+        public String getDescription() { return description; }
+        public int getCost() { return cost; }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Starts recording writes, to be replayed by the next {@link #rebuild(List, List)}. Call it before reading
+     * the snapshot.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the writes recorded since {@link #beginRebuild()}, when the snapshot could not be read.
+     */
+    public void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole content of the index, then replays the writes recorded since {@link #beginRebuild()}.
+     */
+    public void rebuild(List<SearchRestaurant> restaurantSnapshot, List<SearchProduct> productSnapshot) {
+        lock.writeLock().lock();
+        try {
+            restaurants.clear();
+            products.clear();
+            productIdsByRestaurant.clear();
+            restaurantSnapshot.forEach(restaurant -> restaurants.add(restaurant.getId(), restaurant));
+            productSnapshot.forEach(this::addProduct);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.forEach(Runnable::run);
+                writesDuringRebuild = null;
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the restaurants matching the query, ordered by id, at most {@code limit} of them.
+     */
+    public List<SearchRestaurant> searchRestaurants(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return restaurants.search(tokenize(query), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the products matching the query, ordered by id, at most {@code limit} of them.
+     */
+    public List<SearchProduct> searchProducts(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return products.search(tokenize(query), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void putRestaurant(SearchRestaurant restaurant) {
+        write(() -> {
+            restaurants.remove(restaurant.getId());
+            restaurants.add(restaurant.getId(), restaurant);
+        });
+    }
+
+    /**
+     * Removes a restaurant and all of its products.
+     */
+    public void removeRestaurant(int restaurantId) {
+        write(() -> {
+            restaurants.remove(restaurantId);
+            removeProductsOf(restaurantId);
+        });
+    }
+
+    public void putProduct(SearchProduct product) {
+        write(() -> {
+            removeProduct(product.getId());
+            addProduct(product);
+        });
+    }
+
+    /**
+     * Replaces the products of a restaurant, e.g. after a bulk import.
+     */
+    public void replaceProductsOfRestaurant(int restaurantId, List<SearchProduct> restaurantProducts) {
+        write(() -> {
+            removeProductsOf(restaurantId);
+            restaurantProducts.forEach(this::addProduct);
+        });
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addProduct(SearchProduct product) {
+        products.add(product.getId(), product);
+        productIdsByRestaurant.computeIfAbsent(product.getRestaurantId(), key -> new HashSet<>()).add(product.getId());
+    }
+
+    private void removeProduct(int productId) {
+        SearchProduct product = products.remove(productId);
+        if (product != null) {
+            Set<Integer> productIds = productIdsByRestaurant.get(product.getRestaurantId());
+            productIds.remove(productId);
+            if (productIds.isEmpty()) {
+                productIdsByRestaurant.remove(product.getRestaurantId());
+            }
+        }
+    }
+
+    private void removeProductsOf(int restaurantId) {
+        Set<Integer> productIds = productIdsByRestaurant.remove(restaurantId);
+        if (productIds != null) {
+            productIds.forEach(products::remove);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(normalized.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Postings of one kind of document. Not thread-safe: callers hold the index lock.
+     */
+    private static final class Postings<D> {
+        private final Function<D, String> text;
+        private final Map<Integer, D> documents = new HashMap<>();
+        private final Map<Integer, List<String>> documentTokens = new HashMap<>();
+        private final BitSet ids = new BitSet();
+        private final TreeMap<String, BitSet> postings = new TreeMap<>();
+
+        Postings(Function<D, String> text) {
+            this.text = text;
+        }
+
+        void add(int id, D document) {
+            List<String> tokens = tokenize(text.apply(document));
+            documents.put(id, document);
+            documentTokens.put(id, tokens);
+            ids.set(id);
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, key -> new BitSet()).set(id);
+            }
+        }
+
+        D remove(int id) {
+            D document = documents.remove(id);
+            ids.clear(id);
+            List<String> tokens = documentTokens.remove(id);
+            if (tokens == null) {
+                return null;
+            }
+            for (String token : tokens) {
+                BitSet tokenIds = postings.get(token);
+                tokenIds.clear(id);
+                if (tokenIds.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+            return document;
+        }
+
+        void clear() {
+            documents.clear();
+            documentTokens.clear();
+            ids.clear();
+            postings.clear();
+        }
+
+        List<D> search(List<String> tokens, int limit) {
+            if (tokens.isEmpty()) {
+                return List.of();
+            }
+            // Every token but the last one must match exactly
+            BitSet matches = null;
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                BitSet tokenMatches = postings.get(token);
+                if (tokenMatches == null) {
+                    return List.of();
+                }
+                if (matches == null) {
+                    matches = (BitSet) tokenMatches.clone();
+                } else {
+                    matches.and(tokenMatches);
+                }
+            }
+
+            String prefix = tokens.get(tokens.size() - 1);
+            List<BitSet> expansion = expandPrefix(prefix);
+            if (expansion == null) {
+                return walk(matches != null ? matches : ids, prefix, limit);
+            }
+            BitSet prefixMatches = new BitSet();
+            expansion.forEach(prefixMatches::or);
+            if (matches == null) {
+                matches = prefixMatches;
+            } else {
+                matches.and(prefixMatches);
+            }
+            return collect(matches, id -> true, limit);
+        }
+
+        /**
+         * @return The postings of the tokens starting with the prefix, or null when there are more than
+         *         MAX_PREFIX_EXPANSION of them.
+         */
+        private List<BitSet> expandPrefix(String prefix) {
+            List<BitSet> expansion = new ArrayList<>();
+            for (BitSet tokenIds : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                if (expansion.size() == MAX_PREFIX_EXPANSION) {
+                    return null;
+                }
+                expansion.add(tokenIds);
+            }
+            return expansion;
+        }
+
+        private List<D> walk(BitSet candidates, String prefix, int limit) {
+            return collect(candidates, id -> {
+                for (String token : documentTokens.get(id)) {
+                    if (token.startsWith(prefix)) {
+                        return true;
+                    }
+                }
+                return false;
+            }, limit);
+        }
+
+        private List<D> collect(BitSet candidates, IntPredicate accept, int limit) {
+            List<D> result = new ArrayList<>(Math.min(limit, 64));
+            for (int id = candidates.nextSetBit(0); id >= 0 && result.size() < limit; id = candidates.nextSetBit(id + 1)) {
+                if (accept.test(id)) {
+                    result.add(documents.get(id));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory pool of the couriers that are free to take an order, used by the dispatcher.
+ *
+ * Couriers with coordinates are bucketed in a grid of CELL_DEGREES x CELL_DEGREES cells (about 1 km),
+ * so the nearest courier to a restaurant is found by scanning the rings of cells around it and stopping
+ * as soon as no unscanned cell can hold anything closer. The cost depends on how many couriers are near
+ * the restaurant, not on the size of the pool. Couriers without coordinates are only kept per city.
+ *
+ * A courier is taken out of the pool by the same call that finds it, so two orders can never be
+ * matched with the same courier. The pool is empty until {@link #rebuild(List)} is called at startup.
+ */
+@Component
+public class CourierPool {
+    static final double CELL_DEGREES = 0.01;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, PooledCourier> couriers = new HashMap<>();
+    private final Map<Long, Set<PooledCourier>> cells = new HashMap<>();
+    private final Map<String, Set<PooledCourier>> cities = new HashMap<>();
+    private final Map<String, Set<PooledCourier>> unlocatedByCity = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * A free courier and where they are based.
+     */
+    public static final class PooledCourier {
+        private final int id;
+        private final Double latitude;
+        private final Double longitude;
+        private final String city;
+
+        public PooledCourier(int id, Double latitude, Double longitude, String city) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.city = city;
+        }
+
+        public int getId() { return id; }
+        public Double getLatitude() { return latitude; }
+        public Double getLongitude() { return longitude; }
+        public String getCity() { return city; }
+
+        public boolean hasLocation() {
+            return latitude != null && longitude != null;
+        }
+    }
+
+    /**
+     * Replaces the content of the pool.
+     */
+    public void rebuild(List<PooledCourier> freeCouriers) {
+        lock.lock();
+        try {
+            couriers.clear();
+            cells.clear();
+            cities.clear();
+            unlocatedByCity.clear();
+            for (PooledCourier courier : freeCouriers) {
+                addLocked(courier);
+            }
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds a courier that became free, replacing any previous entry for the same id.
+     */
+    public void add(PooledCourier courier) {
+        lock.lock();
+        try {
+            removeLocked(courier.getId());
+            addLocked(courier);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a courier that is no longer free.
+     *
+     * @return Whether the courier was in the pool.
+     */
+    public boolean remove(int courierId) {
+        lock.lock();
+        try {
+            return removeLocked(courierId) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(int courierId) {
+        lock.lock();
+        try {
+            return couriers.containsKey(courierId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return couriers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the courier closest to a restaurant and takes them out of the pool.
+     *
+     * When the restaurant has coordinates, the nearest located courier within maxDistanceKm is chosen
+     * (ties go to the lowest id), falling back to a courier of the same city without coordinates.
+     * When it has none, any courier of the same city is chosen.
+     *
+     * @return The courier, or null when none qualifies.
+     */
+    public PooledCourier claimNearest(Double latitude, Double longitude, String city, double maxDistanceKm) {
+        lock.lock();
+        try {
+            PooledCourier claimed = null;
+            if (latitude != null && longitude != null) {
+                claimed = nearestLocked(latitude, longitude, maxDistanceKm);
+                if (claimed == null) {
+                    claimed = firstOf(unlocatedByCity.get(cityKey(city)));
+                }
+            } else {
+                claimed = firstOf(cities.get(cityKey(city)));
+            }
+            if (claimed != null) {
+                removeLocked(claimed.getId());
+            }
+            return claimed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Distance in km, using the equirectangular approximation, which is accurate to well under a percent
+     * over the few kilometres a courier is dispatched.
+     */
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double x = (longitude2 - longitude1) * Math.cos(Math.toRadians((latitude1 + latitude2) / 2));
+        double y = latitude2 - latitude1;
+        return Math.sqrt(x * x + y * y) * KM_PER_DEGREE;
+    }
+
+    private PooledCourier nearestLocked(double latitude, double longitude, double maxDistanceKm) {
+        int row = cellIndex(latitude);
+        int column = cellIndex(longitude);
+        // A cell r rings away is at least r - 1 cell widths away. Cells are narrowest east-west, and narrower
+        // the further from the equator, so the width is taken at the most polar latitude a match can have.
+        double polarLatitude = Math.min(Math.abs(latitude) + maxDistanceKm / KM_PER_DEGREE + CELL_DEGREES, 89);
+        double cellKm = CELL_DEGREES * KM_PER_DEGREE * Math.cos(Math.toRadians(polarLatitude));
+        int maxRings = (int) Math.ceil(maxDistanceKm / cellKm) + 1;
+
+        PooledCourier best = null;
+        double bestDistance = maxDistanceKm;
+        for (int ring = 0; ring <= maxRings && (ring - 1) * cellKm <= bestDistance; ring++) {
+            for (int dRow = -ring; dRow <= ring; dRow++) {
+                // Interior rows of the ring only have their two edge cells
+                int step = (dRow == -ring || dRow == ring) ? 1 : Math.max(2 * ring, 1);
+                for (int dColumn = -ring; dColumn <= ring; dColumn += step) {
+                    Set<PooledCourier> cell = cells.get(cellKey(row + dRow, column + dColumn));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (PooledCourier courier : cell) {
+                        double distance = distanceKm(latitude, longitude, courier.getLatitude(), courier.getLongitude());
+                        if (distance < bestDistance || (distance == bestDistance && (best == null || courier.getId() < best.getId()))) {
+                            best = courier;
+                            bestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private void addLocked(PooledCourier courier) {
+        couriers.put(courier.getId(), courier);
+        cities.computeIfAbsent(cityKey(courier.getCity()), key -> new HashSet<>()).add(courier);
+        if (courier.hasLocation()) {
+            cells.computeIfAbsent(cellKey(courier), key -> new HashSet<>()).add(courier);
+        } else {
+            unlocatedByCity.computeIfAbsent(cityKey(courier.getCity()), key -> new HashSet<>()).add(courier);
+        }
+    }
+
+    private PooledCourier removeLocked(int courierId) {
+        PooledCourier courier = couriers.remove(courierId);
+        if (courier == null) {
+            return null;
+        }
+        removeFrom(cities, cityKey(courier.getCity()), courier);
+        if (courier.hasLocation()) {
+            removeFrom(cells, cellKey(courier), courier);
+        } else {
+            removeFrom(unlocatedByCity, cityKey(courier.getCity()), courier);
+        }
+        return courier;
+    }
+
+    private static <K> void removeFrom(Map<K, Set<PooledCourier>> buckets, K key, PooledCourier courier) {
+        Set<PooledCourier> bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(courier) && bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+
+    private static PooledCourier firstOf(Set<PooledCourier> bucket) {
+        if (bucket == null) {
+            return null;
+        }
+        Iterator<PooledCourier> iterator = bucket.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static String cityKey(String city) {
+        return city == null ? "" : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(PooledCourier courier) {
+        return cellKey(cellIndex(courier.getLatitude()), cellIndex(courier.getLongitude()));
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
@@ -0,0 +1,158 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live count of couriers per status and per city, for GET /api/couriers/status-board.
+ *
+ * Each courier's current status and city is kept in a ConcurrentHashMap, so a status change only locks
+ * the entry of that courier. Counts are LongAdders, which spread concurrent increments over several
+ * cells instead of contending on one value, and each status also has a concurrent set of its courier ids.
+ * Reading the board never blocks writers; a read that races with changes may see some of them and not
+ * others, which is fine for a dashboard.
+ *
+ * Changes are applied once they have committed. The board is empty until {@link #rebuild(List)} is called at startup.
+ */
+@Component
+public class CourierStatusBoard {
+    static final String UNKNOWN_CITY = "Unknown";
+
+    private volatile Board board = new Board();
+
+    /**
+     * A courier, their status and their city, as loaded on startup.
+     */
+    public static final class Entry {
+        private final int courierId;
+        private final int statusId;
+        private final String city;
+
+        public Entry(int courierId, int statusId, String city) {
+            this.courierId = courierId;
+            this.statusId = statusId;
+            this.city = city;
+        }
+
+        public int getCourierId() { return courierId; }
+        public int getStatusId() { return statusId; }
+        public String getCity() { return city; }
+    }
+
+    private static final class Placement {
+        private final int statusId;
+        private final String city;
+
+        private Placement(int statusId, String city) {
+            this.statusId = statusId;
+            this.city = city;
+        }
+    }
+
+    private static final class Board {
+        private final ConcurrentHashMap<Integer, Placement> couriers = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Integer, Set<Integer>> statusCouriers = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, ConcurrentHashMap<Integer, LongAdder>> cityCounts = new ConcurrentHashMap<>();
+
+        private void move(int courierId, int statusId, String city) {
+            couriers.compute(courierId, (id, previous) -> {
+                String nextCity = city != null ? city : previous != null ? previous.city : UNKNOWN_CITY;
+                if (previous != null) {
+                    if (previous.statusId == statusId && previous.city.equals(nextCity)) {
+                        return previous;
+                    }
+                    count(previous, -1);
+                    statusCouriers.get(previous.statusId).remove(id);
+                }
+                Placement next = new Placement(statusId, nextCity);
+                count(next, 1);
+                statusCouriers.computeIfAbsent(statusId, key -> ConcurrentHashMap.newKeySet()).add(id);
+                return next;
+            });
+        }
+
+        private void count(Placement placement, int delta) {
+            statusCounts.computeIfAbsent(placement.statusId, key -> new LongAdder()).add(delta);
+            cityCounts.computeIfAbsent(placement.city, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(placement.statusId, key -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * Replaces the whole board.
+     */
+    public void rebuild(List<Entry> entries) {
+        Board loaded = new Board();
+        for (Entry entry : entries) {
+            loaded.move(entry.getCourierId(), entry.getStatusId(), cityName(entry.getCity()));
+        }
+        board = loaded;
+    }
+
+    /**
+     * Records a courier's new status.
+     *
+     * @param city The courier's city, or null to keep the one already on the board.
+     */
+    public void update(int courierId, int statusId, String city) {
+        board.move(courierId, statusId, city != null ? cityName(city) : null);
+    }
+
+    /**
+     * @return status id -> number of couriers, for every status any courier has had.
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        return sums(board.statusCounts);
+    }
+
+    /**
+     * @return city -> status id -> number of couriers, ordered by city; statuses nobody in the city has are left out.
+     */
+    public Map<String, Map<Integer, Long>> getCityCounts() {
+        Map<String, Map<Integer, Long>> cities = new TreeMap<>();
+        board.cityCounts.forEach((city, counts) -> {
+            Map<Integer, Long> sums = sums(counts);
+            sums.values().removeIf(count -> count == 0);
+            if (!sums.isEmpty()) {
+                cities.put(city, sums);
+            }
+        });
+        return cities;
+    }
+
+    /**
+     * @return The ids of the couriers in a status, in ascending order.
+     */
+    public List<Integer> getCourierIds(int statusId) {
+        Set<Integer> ids = board.statusCouriers.get(statusId);
+        if (ids == null) {
+            return List.of();
+        }
+        List<Integer> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    public int size() {
+        return board.couriers.size();
+    }
+
+    private static Map<Integer, Long> sums(Map<Integer, LongAdder> counts) {
+        Map<Integer, Long> sums = new TreeMap<>();
+        counts.forEach((statusId, count) -> sums.put(statusId, count.sum()));
+        return sums;
+    }
+
+    private static String cityName(String city) {
+        return city == null || city.isBlank() ? UNKNOWN_CITY : city.trim();
+    }
+}
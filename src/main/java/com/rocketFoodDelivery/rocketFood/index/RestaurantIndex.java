@@ -0,0 +1,282 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiRestaurantDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of restaurants for GET /api/restaurants?rating=&price_range=.
+ *
+ * Restaurant ids are kept in one BitSet per (price range, rounded rating) bucket, so a filtered listing
+ * is the union of at most a handful of bitsets walked in id order. Ratings are derived from the same
+ * rating_sum / rating_count aggregates as the restaurants table and updated with the same deltas.
+ *
+ * Each price range also has a ranking ordered by exact average rating (best first), then by number of
+ * orders and id, so the top N of a price range is read by walking the first N entries.
+ *
+ * The index is empty until {@link #rebuild(List)} is called at startup; callers must check {@link #isReady()}
+ * and fall back to the database before that.
+ */
+@Component
+public class RestaurantIndex {
+    private static final Comparator<IndexedRestaurant> BEST_RATED_FIRST = Comparator
+        .comparingDouble(IndexedRestaurant::getAverageRating).reversed()
+        .thenComparing(Comparator.comparingInt(IndexedRestaurant::getRatingCount).reversed())
+        .thenComparingInt(IndexedRestaurant::getId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedRestaurant> restaurants = new HashMap<>();
+    private final Map<Long, BitSet> buckets = new HashMap<>();
+    private final Map<Integer, NavigableSet<IndexedRestaurant>> rankings = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * Snapshot of one restaurant as seen by the index.
+     */
+    public static final class IndexedRestaurant {
+        private final int id;
+        private final String name;
+        private final int priceRange;
+        private final long ratingSum;
+        private final int ratingCount;
+
+        public IndexedRestaurant(int id, String name, int priceRange, long ratingSum, int ratingCount) {
+            this.id = id;
+            this.name = name;
+            this.priceRange = priceRange;
+            this.ratingSum = ratingSum;
+            this.ratingCount = ratingCount;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+        public int getPriceRange() { return priceRange; }
+        public long getRatingSum() { return ratingSum; }
+        public int getRatingCount() { return ratingCount; }
+
+        public double getAverageRating() {
+            return ratingCount == 0 ? 0 : (double) ratingSum / ratingCount;
+        }
+
+        /**
+         * Same rounding as the SQL queries: the exact ceiling of rating_sum / rating_count in integer
+         * arithmetic, (rating_sum + rating_count - 1) DIV rating_count, or 0 without orders.
+         */
+        public int getRating() {
+            return ratingCount == 0 ? 0 : (int) ((ratingSum + ratingCount - 1) / ratingCount);
+        }
+
+        public ApiRestaurantDTO toDTO() {
+            return new ApiRestaurantDTO(id, name, priceRange, getRating());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replaces the whole content of the index.
+     */
+    public void rebuild(List<IndexedRestaurant> snapshot) {
+        lock.writeLock().lock();
+        try {
+            restaurants.clear();
+            buckets.clear();
+            rankings.clear();
+            for (IndexedRestaurant restaurant : snapshot) {
+                add(restaurant);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the restaurants matching the filters, ordered by id. Null filters match everything.
+     */
+    public List<ApiRestaurantDTO> find(Integer rating, Integer priceRange) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet();
+            for (Map.Entry<Long, BitSet> bucket : buckets.entrySet()) {
+                long key = bucket.getKey();
+                if ((priceRange == null || priceRange == bucketPriceRange(key))
+                        && (rating == null || rating == bucketRating(key))) {
+                    matches.or(bucket.getValue());
+                }
+            }
+
+            List<ApiRestaurantDTO> result = new ArrayList<>(matches.cardinality());
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                result.add(restaurants.get(id).toDTO());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best rated restaurants of a price range, at most {@code limit} of them.
+     */
+    public List<ApiRestaurantDTO> findTopRated(int priceRange, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<IndexedRestaurant> ranking = rankings.get(priceRange);
+            if (ranking == null) {
+                return new ArrayList<>();
+            }
+            List<ApiRestaurantDTO> result = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (IndexedRestaurant restaurant : ranking) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(restaurant.toDTO());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public IndexedRestaurant get(int restaurantId) {
+        lock.readLock().lock();
+        try {
+            return restaurants.get(restaurantId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a restaurant or updates its name and price range, keeping its rating aggregates.
+     */
+    public void upsert(int restaurantId, String name, int priceRange) {
+        lock.writeLock().lock();
+        try {
+            IndexedRestaurant previous = remove(restaurantId);
+            long ratingSum = previous != null ? previous.getRatingSum() : 0;
+            int ratingCount = previous != null ? previous.getRatingCount() : 0;
+            add(new IndexedRestaurant(restaurantId, name, priceRange, ratingSum, ratingCount));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mirrors RestaurantRepository#applyRatingDelta. Unknown restaurants are ignored.
+     */
+    public void applyRatingDelta(int restaurantId, long sumDelta, int countDelta) {
+        lock.writeLock().lock();
+        try {
+            IndexedRestaurant previous = remove(restaurantId);
+            if (previous != null) {
+                add(new IndexedRestaurant(restaurantId, previous.getName(), previous.getPriceRange(),
+                    previous.getRatingSum() + sumDelta, previous.getRatingCount() + countDelta));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(int restaurantId) {
+        lock.writeLock().lock();
+        try {
+            remove(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the index with a fresh snapshot of the database.
+     *
+     * @return One human-readable line per restaurant that differs; empty when the index is consistent.
+     */
+    public List<String> findMismatches(List<IndexedRestaurant> snapshot) {
+        lock.readLock().lock();
+        try {
+            List<String> mismatches = new ArrayList<>();
+            for (IndexedRestaurant expected : snapshot) {
+                IndexedRestaurant actual = restaurants.get(expected.getId());
+                if (actual == null) {
+                    mismatches.add("Restaurant " + expected.getId() + " is missing from the index");
+                } else if (!actual.getName().equals(expected.getName())
+                        || actual.getPriceRange() != expected.getPriceRange()
+                        || actual.getRatingSum() != expected.getRatingSum()
+                        || actual.getRatingCount() != expected.getRatingCount()) {
+                    mismatches.add("Restaurant " + expected.getId() + " differs: index has price range "
+                        + actual.getPriceRange() + ", ratings " + actual.getRatingSum() + "/" + actual.getRatingCount()
+                        + "; database has price range " + expected.getPriceRange() + ", ratings "
+                        + expected.getRatingSum() + "/" + expected.getRatingCount());
+                }
+            }
+            BitSet inDatabase = new BitSet();
+            snapshot.forEach(restaurant -> inDatabase.set(restaurant.getId()));
+            for (Integer id : restaurants.keySet()) {
+                if (!inDatabase.get(id)) {
+                    mismatches.add("Restaurant " + id + " is in the index but not in the database");
+                }
+            }
+            return mismatches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return restaurants.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void add(IndexedRestaurant restaurant) {
+        restaurants.put(restaurant.getId(), restaurant);
+        buckets.computeIfAbsent(bucketKey(restaurant.getPriceRange(), restaurant.getRating()), key -> new BitSet())
+            .set(restaurant.getId());
+        rankings.computeIfAbsent(restaurant.getPriceRange(), priceRange -> new TreeSet<>(BEST_RATED_FIRST))
+            .add(restaurant);
+    }
+
+    // Callers hold the write lock
+    private IndexedRestaurant remove(int restaurantId) {
+        IndexedRestaurant previous = restaurants.remove(restaurantId);
+        if (previous != null) {
+            long key = bucketKey(previous.getPriceRange(), previous.getRating());
+            BitSet bucket = buckets.get(key);
+            bucket.clear(restaurantId);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+            rankings.get(previous.getPriceRange()).remove(previous);
+        }
+        return previous;
+    }
+
+    private static long bucketKey(int priceRange, int rating) {
+        return ((long) priceRange << 32) | (rating & 0xffffffffL);
+    }
+
+    private static int bucketPriceRange(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int bucketRating(long key) {
+        return (int) key;
+    }
+}
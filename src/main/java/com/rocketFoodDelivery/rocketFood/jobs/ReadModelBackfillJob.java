@@ -0,0 +1,133 @@
+package com.rocketFoodDelivery.rocketFood.jobs;
+
+import com.rocketFoodDelivery.rocketFood.events.OrderHistoryProjection;
+import com.rocketFoodDelivery.rocketFood.repository.OrderRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderViewRepository;
+import com.rocketFoodDelivery.rocketFood.repository.ProductOrderRepository;
+import com.rocketFoodDelivery.rocketFood.service.CourierService;
+import com.rocketFoodDelivery.rocketFood.service.RestaurantService;
+import com.rocketFoodDelivery.rocketFood.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings the derived read models in line with the normalized tables once the application has started,
+ * so rows written outside of the services (e.g. by the DataSeeder or by hand) are picked up.
+ */
+@Component
+public class ReadModelBackfillJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadModelBackfillJob.class);
+
+    private final OrderViewRepository orderViewRepository;
+    private final OrderRepository orderRepository;
+    private final ProductOrderRepository productOrderRepository;
+    private final RestaurantService restaurantService;
+    private final SearchService searchService;
+    private final OrderHistoryProjection orderHistoryProjection;
+    private final CourierService courierService;
+    private final boolean backfillRatingsOnStartup;
+
+    @Autowired
+    public ReadModelBackfillJob(OrderViewRepository orderViewRepository,
+                                OrderRepository orderRepository,
+                                ProductOrderRepository productOrderRepository,
+                                RestaurantService restaurantService,
+                                SearchService searchService,
+                                OrderHistoryProjection orderHistoryProjection,
+                                CourierService courierService,
+                                @Value("${app.backfill.restaurant-ratings-on-startup:true}") boolean backfillRatingsOnStartup) {
+        this.orderViewRepository = orderViewRepository;
+        this.orderRepository = orderRepository;
+        this.productOrderRepository = productOrderRepository;
+        this.restaurantService = restaurantService;
+        this.searchService = searchService;
+        this.orderHistoryProjection = orderHistoryProjection;
+        this.courierService = courierService;
+        this.backfillRatingsOnStartup = backfillRatingsOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        backfillOrderCosts();
+        backfillOrderViews();
+        if (backfillRatingsOnStartup) {
+            backfillRatingAggregates();
+        }
+        buildRestaurantIndex();
+        buildSearchIndex();
+        buildOrderHistory();
+        buildCourierPool();
+        buildCourierStatusBoard();
+    }
+
+    /**
+     * Snapshots unit costs and order totals of orders written before they were stored with the order.
+     */
+    public void backfillOrderCosts() {
+        int lines = productOrderRepository.backfillProductUnitCosts();
+        int orders = orderRepository.backfillOrderTotals();
+        LOGGER.info("Order costs backfilled: {} product lines, {} orders", lines, orders);
+    }
+
+    /**
+     * Projects orders that have no order_views row and drops rows of orders that no longer exist.
+     */
+    public void backfillOrderViews() {
+        int inserted = orderViewRepository.insertMissingOrderViews();
+        int deleted = orderViewRepository.deleteOrphanOrderViews();
+        LOGGER.info("Order views backfilled: {} inserted, {} removed", inserted, deleted);
+    }
+
+    /**
+     * Recomputes restaurants.rating_sum and rating_count from the orders table.
+     * Needed once for data written before the aggregates existed; afterwards it only repairs drift.
+     */
+    public void backfillRatingAggregates() {
+        int updated = restaurantService.backfillRatingAggregates();
+        LOGGER.info("Restaurant rating aggregates backfilled: {} restaurants updated", updated);
+    }
+
+    /**
+     * Loads the in-memory restaurant index; until then restaurant listings are read from the database.
+     */
+    public void buildRestaurantIndex() {
+        int indexed = restaurantService.rebuildRestaurantIndex();
+        LOGGER.info("Restaurant index built: {} restaurants", indexed);
+    }
+
+    /**
+     * Loads the catalog search index used by GET /api/search.
+     */
+    public void buildSearchIndex() {
+        int indexed = searchService.rebuildIndex();
+        LOGGER.info("Catalog search index built: {} restaurants and products", indexed);
+    }
+
+    /**
+     * Replays the order event log into the order history projection, which then follows new events.
+     */
+    public void buildOrderHistory() {
+        orderHistoryProjection.rebuild();
+    }
+
+    /**
+     * Loads the free couriers into the dispatch pool; until then no order is dispatched.
+     */
+    public void buildCourierPool() {
+        int pooled = courierService.rebuildCourierPool();
+        LOGGER.info("Courier pool built: {} free couriers", pooled);
+    }
+
+    /**
+     * Loads the status and city of every courier into the status board behind GET /api/couriers/status-board.
+     */
+    public void buildCourierStatusBoard() {
+        int couriers = courierService.rebuildStatusBoard();
+        LOGGER.info("Courier status board built: {} couriers", couriers);
+    }
+}
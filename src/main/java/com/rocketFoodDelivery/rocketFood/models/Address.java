@@ -23,4 +23,7 @@ public class Address {
     private String city;
     @Column(name = "postal_code", nullable = false)
     private String postalCode;
+    // Coordinates used to dispatch couriers by distance; null for addresses that were never geocoded
+    private Double latitude;
+    private Double longitude;
 }
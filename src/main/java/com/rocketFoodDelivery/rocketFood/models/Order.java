@@ -47,4 +47,9 @@ public class Order {
     @Min(1)
     @Max(5)
     private int restaurant_rating;
+
+    // Sum of quantity * unit cost of the product lines, fixed when the order is created
+    @Column(nullable = true)
+    @Min(0)
+    private Long total_cost;
 }
@@ -0,0 +1,55 @@
+package com.rocketFoodDelivery.rocketFood.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denormalized, read-only projection of an order with everything the order routes return.
+ * Rows are written by OrderService on order creation and status changes, so reads are single-table lookups.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "order_views", indexes = {
+        @Index(name = "idx_order_views_customer", columnList = "customer_id, order_id"),
+        @Index(name = "idx_order_views_restaurant", columnList = "restaurant_id, order_id"),
+        @Index(name = "idx_order_views_courier", columnList = "courier_id, order_id")
+})
+public class OrderView {
+    @Id
+    @Column(name = "order_id")
+    private int orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private int customerId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private int restaurantId;
+
+    @Column(name = "courier_id")
+    private Integer courierId;
+
+    @Column(name = "customer_address", nullable = false)
+    private String customerAddress;
+
+    @Column(name = "restaurant_name", nullable = false)
+    private String restaurantName;
+
+    @Column(name = "restaurant_address", nullable = false)
+    private String restaurantAddress;
+
+    @Column(nullable = false)
+    private String status;
+
+    // JSON array of the order's product lines, in the ApiProductForOrderApiDTO format
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String products;
+
+    @Column(name = "total_cost", nullable = false)
+    private long totalCost;
+}
@@ -44,4 +44,12 @@ public class Restaurant {
 
     @Column(nullable = false)
     private String email;
+
+    // Running totals of orders.restaurant_rating and of the number of orders, kept in sync by OrderService
+    // so the average rating can be read without aggregating the orders table
+    @Column(name = "rating_sum", nullable = false, columnDefinition = "bigint default 0")
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false, columnDefinition = "int default 0")
+    private int ratingCount;
 }
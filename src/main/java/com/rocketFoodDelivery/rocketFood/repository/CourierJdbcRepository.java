@@ -0,0 +1,144 @@
+package com.rocketFoodDelivery.rocketFood.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Courier queries used by dispatch and the status board, which read and change courier statuses in batches.
+ */
+@Repository
+public class CourierJdbcRepository {
+    private static final String COURIER_LOCATIONS = """
+        SELECT c.id, a.latitude, a.longitude, a.city, c.courier_status_id, c.active
+        FROM courier c
+        LEFT JOIN addresses a ON a.id = c.address_id
+        """;
+
+    private static final String UPDATE_COURIER_STATUS_FROM =
+        "UPDATE courier SET courier_status_id = ? WHERE id = ? AND courier_status_id = ?";
+
+    // Only frees a busy courier who has no unfinished order left
+    private static final String RELEASE_IDLE_COURIER = """
+        UPDATE courier SET courier_status_id = ?
+        WHERE id = ? AND courier_status_id = ?
+        AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.courier_id = ? AND o.status_id NOT IN (%s))
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CourierJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Loads the active couriers in the given status and where they are based.
+     *
+     * @return One [id, latitude, longitude, city] row per courier; the coordinates may be null.
+     */
+    public List<Object[]> findActiveCourierLocationsByStatus(int statusId) {
+        return jdbcTemplate.query(COURIER_LOCATIONS + "WHERE c.courier_status_id = ? AND c.active = TRUE ORDER BY c.id",
+            (resultSet, rowNum) -> new Object[] {
+                resultSet.getInt(1),
+                resultSet.getObject(2, Double.class),
+                resultSet.getObject(3, Double.class),
+                resultSet.getString(4)
+            },
+            statusId);
+    }
+
+    /**
+     * Loads the status and city of every courier.
+     *
+     * @return One [id, courier_status_id, city] row per courier; the city is null when the address is missing.
+     */
+    public List<Object[]> findCourierStatuses() {
+        return jdbcTemplate.query(COURIER_LOCATIONS + "ORDER BY c.id",
+            (resultSet, rowNum) -> new Object[] {
+                resultSet.getInt(1),
+                resultSet.getInt(5),
+                resultSet.getString(4)
+            });
+    }
+
+    /**
+     * Loads where the given couriers are based, skipping inactive ones.
+     *
+     * @return One [id, latitude, longitude, city] row per courier; the coordinates may be null.
+     */
+    public List<Object[]> findActiveCourierLocations(Collection<Integer> courierIds) {
+        if (courierIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = courierIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+        return jdbcTemplate.query(COURIER_LOCATIONS + "WHERE c.id IN (" + placeholders + ") AND c.active = TRUE ORDER BY c.id",
+            (resultSet, rowNum) -> new Object[] {
+                resultSet.getInt(1),
+                resultSet.getObject(2, Double.class),
+                resultSet.getObject(3, Double.class),
+                resultSet.getString(4)
+            },
+            courierIds.toArray());
+    }
+
+    /**
+     * @return [id, latitude, longitude, city, courier_status_id, active], or null when the courier does not exist.
+     */
+    public Object[] findCourierLocation(int courierId) {
+        List<Object[]> rows = jdbcTemplate.query(COURIER_LOCATIONS + "WHERE c.id = ?",
+            (resultSet, rowNum) -> new Object[] {
+                resultSet.getInt(1),
+                resultSet.getObject(2, Double.class),
+                resultSet.getObject(3, Double.class),
+                resultSet.getString(4),
+                resultSet.getInt(5),
+                resultSet.getBoolean(6)
+            },
+            courierId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public int updateCourierStatus(int courierId, int statusId) {
+        return jdbcTemplate.update("UPDATE courier SET courier_status_id = ? WHERE id = ?", statusId, courierId);
+    }
+
+    /**
+     * Moves each given courier to a new status if it is still in the expected one, as one JDBC batch.
+     *
+     * @return The number of rows updated per courier, in the order of the ids.
+     */
+    public int[] updateCourierStatuses(List<Integer> courierIds, int fromStatusId, int toStatusId) {
+        return jdbcTemplate.batchUpdate(UPDATE_COURIER_STATUS_FROM, courierIds, courierIds.size(), (statement, courierId) -> {
+            statement.setInt(1, toStatusId);
+            statement.setInt(2, courierId);
+            statement.setInt(3, fromStatusId);
+        })[0];
+    }
+
+    /**
+     * Moves each given courier from busy to free, as one JDBC batch, unless they are no longer busy or still
+     * carry an order whose status is not one of the finished ones.
+     *
+     * @return The number of rows updated per courier, in the order of the ids.
+     */
+    public int[] releaseIdleCouriers(List<Integer> courierIds, int busyStatusId, int freeStatusId,
+                                     Collection<Integer> finishedOrderStatusIds) {
+        String placeholders = finishedOrderStatusIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+        return jdbcTemplate.batchUpdate(String.format(RELEASE_IDLE_COURIER, placeholders), courierIds, courierIds.size(),
+            (statement, courierId) -> {
+                statement.setInt(1, freeStatusId);
+                statement.setInt(2, courierId);
+                statement.setInt(3, busyStatusId);
+                statement.setInt(4, courierId);
+                int index = 5;
+                for (int statusId : finishedOrderStatusIds) {
+                    statement.setInt(index++, statusId);
+                }
+            })[0];
+    }
+}
@@ -0,0 +1,384 @@
+package com.rocketFoodDelivery.rocketFood.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Order queries that need plain JDBC features Spring Data does not expose, such as streaming result sets,
+ * generated keys, variable-length IN lists and statement batching.
+ */
+@Repository
+public class OrderJdbcRepository {
+    // Connector/J only streams rows one at a time (instead of buffering the whole result set)
+    // for forward-only, read-only statements with this fetch size.
+    static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final Map<String, String> OWNER_COLUMNS = Map.of(
+        "customer", "v.customer_id",
+        "restaurant", "v.restaurant_id",
+        "courier", "v.courier_id"
+    );
+
+    private static final String ORDERS_WITH_DETAILS = """
+        SELECT v.order_id, v.customer_id, v.restaurant_id, v.courier_id, v.customer_address,
+               v.restaurant_name, v.restaurant_address, v.status, v.products, v.total_cost
+        FROM order_views v
+        """;
+
+    private static final String ORDER_CONTEXT = """
+        SELECT c.id, CONCAT(ca.street_address, ', ', ca.city, ', ', ca.postal_code),
+               r.id, r.name, CONCAT(ra.street_address, ', ', ra.city, ', ', ra.postal_code)
+        FROM (SELECT ? AS customer_id, ? AS restaurant_id) k
+        LEFT JOIN customers c ON c.id = k.customer_id
+        LEFT JOIN addresses ca ON ca.id = c.address_id
+        LEFT JOIN restaurants r ON r.id = k.restaurant_id
+        LEFT JOIN addresses ra ON ra.id = r.address_id
+        """;
+
+    private static final String INSERT_ORDER =
+        "INSERT INTO orders (customer_id, restaurant_id, status_id, total_cost) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_PRODUCT_ORDER =
+        "INSERT INTO product_orders (order_id, product_id, product_quantity, product_unit_cost) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ORDER_VIEW = """
+        INSERT INTO order_views
+        (order_id, customer_id, restaurant_id, courier_id, customer_address, restaurant_name,
+         restaurant_address, status, products, total_cost)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OrderJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams the orders of a customer, restaurant or courier through a forward-only cursor, ordered by id.
+     * Rows have the same layout as {@link OrderRepository#findOrdersWithDetailsByCustomerIdAfter(int, int, int)} and are handed
+     * to the consumer as they are read, so memory use does not depend on the number of orders.
+     * The connection stays busy until the last row is read: the consumer must not issue queries inside
+     * the same transaction.
+     *
+     * @param userType One of customer, restaurant or courier.
+     * @param userId   The ID of the customer, restaurant or courier.
+     * @param rowConsumer Receives each row as an Object array.
+     */
+    public void streamOrdersWithDetails(String userType, int userId, Consumer<Object[]> rowConsumer) {
+        String ownerColumn = OWNER_COLUMNS.get(userType.toLowerCase());
+        if (ownerColumn == null) {
+            throw new IllegalArgumentException("Invalid user type: " + userType);
+        }
+        String sql = ORDERS_WITH_DETAILS + "WHERE " + ownerColumn + " = ? ORDER BY v.order_id";
+
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(STREAMING_FETCH_SIZE);
+                statement.setInt(1, userId);
+                return statement;
+            },
+            resultSet -> {
+                rowConsumer.accept(new Object[] {
+                    resultSet.getInt(1),
+                    resultSet.getInt(2),
+                    resultSet.getInt(3),
+                    resultSet.getObject(4),
+                    resultSet.getString(5),
+                    resultSet.getString(6),
+                    resultSet.getString(7),
+                    resultSet.getString(8),
+                    resultSet.getString(9),
+                    resultSet.getLong(10)
+                });
+            });
+    }
+
+    /**
+     * Loads everything createOrder needs to know about the customer and the restaurant in one statement.
+     * Always returns one row; the ids are null when the customer or restaurant does not exist.
+     *
+     * @return [customer_id, customer_address, restaurant_id, restaurant_name, restaurant_address]
+     */
+    public Object[] findOrderContext(int customerId, int restaurantId) {
+        return jdbcTemplate.queryForObject(ORDER_CONTEXT,
+            (resultSet, rowNum) -> new Object[] {
+                resultSet.getObject(1),
+                resultSet.getString(2),
+                resultSet.getObject(3),
+                resultSet.getString(4),
+                resultSet.getString(5)
+            },
+            customerId, restaurantId);
+    }
+
+    /**
+     * Loads the given products with one IN query, so the caller can check that they all exist and
+     * all belong to the ordering restaurant.
+     *
+     * @return One [id, restaurant_id, cost] row per existing product.
+     */
+    public List<Object[]> findProductsForOrder(List<Integer> productIds) {
+        String sql = "SELECT p.id, p.restaurant_id, p.cost FROM products p WHERE p.id IN ("
+            + placeholders(productIds.size()) + ")";
+        return jdbcTemplate.query(sql,
+            (resultSet, rowNum) -> new Object[] { resultSet.getInt(1), resultSet.getInt(2), resultSet.getInt(3) },
+            productIds.toArray());
+    }
+
+    /**
+     * Inserts an order and returns its generated id from the same statement.
+     */
+    public int insertOrder(int customerId, int restaurantId, int statusId, long totalCost) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_ORDER, Statement.RETURN_GENERATED_KEYS);
+            statement.setInt(1, customerId);
+            statement.setInt(2, restaurantId);
+            statement.setInt(3, statusId);
+            statement.setLong(4, totalCost);
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().intValue();
+    }
+
+    /**
+     * Loads the addresses of the given customers with one IN query.
+     *
+     * @return customer id -> formatted address, for the customers that exist.
+     */
+    public Map<Integer, String> findCustomerAddresses(Collection<Integer> customerIds) {
+        Map<Integer, String> addresses = new HashMap<>();
+        if (customerIds.isEmpty()) {
+            return addresses;
+        }
+        String sql = """
+            SELECT c.id, CONCAT(ca.street_address, ', ', ca.city, ', ', ca.postal_code)
+            FROM customers c
+            LEFT JOIN addresses ca ON ca.id = c.address_id
+            WHERE c.id IN (""" + placeholders(customerIds.size()) + ")";
+        jdbcTemplate.query(sql,
+            (RowCallbackHandler) resultSet -> addresses.put(resultSet.getInt(1), resultSet.getString(2)),
+            customerIds.toArray());
+        return addresses;
+    }
+
+    /**
+     * Loads the names and addresses of the given restaurants with one IN query.
+     *
+     * @return restaurant id -> [name, formatted address], for the restaurants that exist.
+     */
+    public Map<Integer, String[]> findRestaurantNamesAndAddresses(Collection<Integer> restaurantIds) {
+        Map<Integer, String[]> restaurants = new HashMap<>();
+        if (restaurantIds.isEmpty()) {
+            return restaurants;
+        }
+        String sql = """
+            SELECT r.id, r.name, CONCAT(ra.street_address, ', ', ra.city, ', ', ra.postal_code)
+            FROM restaurants r
+            LEFT JOIN addresses ra ON ra.id = r.address_id
+            WHERE r.id IN (""" + placeholders(restaurantIds.size()) + ")";
+        jdbcTemplate.query(sql,
+            (RowCallbackHandler) resultSet -> restaurants.put(resultSet.getInt(1),
+                new String[] { resultSet.getString(2), resultSet.getString(3) }),
+            restaurantIds.toArray());
+        return restaurants;
+    }
+
+    /**
+     * Inserts several orders as one JDBC batch and returns their generated ids, in the order of the rows.
+     *
+     * @param orders One [customer_id, restaurant_id, total_cost] row per order.
+     */
+    public int[] insertOrders(List<long[]> orders, int statusId) {
+        return jdbcTemplate.execute((ConnectionCallback<int[]>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ORDER, Statement.RETURN_GENERATED_KEYS)) {
+                for (long[] order : orders) {
+                    statement.setInt(1, (int) order[0]);
+                    statement.setInt(2, (int) order[1]);
+                    statement.setInt(3, statusId);
+                    statement.setLong(4, order[2]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                int[] ids = new int[orders.size()];
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (int i = 0; i < ids.length; i++) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Missing generated key for order " + i + " of the batch");
+                        }
+                        ids[i] = keys.getInt(1);
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Inserts product lines as one JDBC batch, i.e. multi-row INSERTs with rewriteBatchedStatements=true.
+     * The lines may belong to several orders.
+     *
+     * @param lines One [order_id, product_id, product_quantity, product_unit_cost] row per line.
+     */
+    public void insertProductOrders(List<int[]> lines) {
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_ORDER, lines, lines.size(), (statement, line) -> {
+            statement.setInt(1, line[0]);
+            statement.setInt(2, line[1]);
+            statement.setInt(3, line[2]);
+            statement.setInt(4, line[3]);
+        });
+    }
+
+    /**
+     * Writes order_views rows as one JDBC batch.
+     *
+     * @param rows Rows in the layout returned by {@link #streamOrdersWithDetails(String, int, Consumer)}.
+     */
+    public void insertOrderViews(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_ORDER_VIEW, rows, rows.size(), (statement, row) -> {
+            for (int column = 0; column < row.length; column++) {
+                statement.setObject(column + 1, row[column]);
+            }
+        });
+    }
+
+    /**
+     * Moves the given orders to a new status, but only those currently in one of the allowed predecessor
+     * statuses. The transition check is part of each UPDATE, so concurrent changes cannot overwrite each other.
+     * All orders are updated in one JDBC batch, which, unlike a single UPDATE ... WHERE id IN (...), reports
+     * which of them changed. Pass the ids in ascending order so concurrent batches lock rows in the same order.
+     *
+     * @return The number of rows updated per order, in the order of the ids.
+     */
+    public int[] updateOrderStatuses(List<Integer> orderIds, int statusId, Collection<Integer> fromStatusIds) {
+        if (orderIds.isEmpty() || fromStatusIds.isEmpty()) {
+            return new int[orderIds.size()];
+        }
+        String sql = "UPDATE orders SET status_id = ? WHERE id = ? AND status_id IN (" + placeholders(fromStatusIds.size()) + ")";
+        return jdbcTemplate.batchUpdate(sql, orderIds, orderIds.size(), (statement, orderId) -> {
+            statement.setInt(1, statusId);
+            statement.setInt(2, orderId);
+            int index = 3;
+            for (int fromStatusId : fromStatusIds) {
+                statement.setInt(index++, fromStatusId);
+            }
+        })[0];
+    }
+
+    /**
+     * Loads the status and owners of the given orders with one IN query.
+     *
+     * @return One [id, status_id, customer_id, restaurant_id, courier_id] row per existing order;
+     *         courier_id is null when no courier is assigned.
+     */
+    public List<Object[]> findOrderStatuses(Collection<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT o.id, o.status_id, o.customer_id, o.restaurant_id, o.courier_id FROM orders o WHERE o.id IN ("
+            + placeholders(orderIds.size()) + ")";
+        return jdbcTemplate.query(sql,
+            (resultSet, rowNum) -> new Object[] {
+                resultSet.getInt(1),
+                resultSet.getInt(2),
+                resultSet.getInt(3),
+                resultSet.getInt(4),
+                resultSet.getObject(5, Integer.class)
+            },
+            orderIds.toArray());
+    }
+
+    /**
+     * Sets the status of several order_views rows with one statement.
+     */
+    public void updateOrderViewStatuses(Collection<Integer> orderIds, String status) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(1 + orderIds.size());
+        args.add(status);
+        args.addAll(orderIds);
+        jdbcTemplate.update("UPDATE order_views SET status = ? WHERE order_id IN (" + placeholders(orderIds.size()) + ")",
+            args.toArray());
+    }
+
+    /**
+     * Loads the oldest orders in the given status that have no courier yet and whose id is above afterOrderId,
+     * with where their restaurant is.
+     *
+     * @return Up to limit [order_id, latitude, longitude, city] rows, oldest first; the coordinates may be null.
+     */
+    public List<Object[]> findUnassignedOrders(int statusId, int afterOrderId, int limit) {
+        String sql = """
+            SELECT o.id, ra.latitude, ra.longitude, ra.city
+            FROM orders o
+            JOIN restaurants r ON r.id = o.restaurant_id
+            LEFT JOIN addresses ra ON ra.id = r.address_id
+            WHERE o.status_id = ? AND o.courier_id IS NULL AND o.id > ?
+            ORDER BY o.id
+            LIMIT ?
+            """;
+        return jdbcTemplate.query(sql,
+            (resultSet, rowNum) -> new Object[] {
+                resultSet.getInt(1),
+                resultSet.getObject(2, Double.class),
+                resultSet.getObject(3, Double.class),
+                resultSet.getString(4)
+            },
+            statusId, afterOrderId, limit);
+    }
+
+    /**
+     * Sets the courier of several orders as one JDBC batch, but only on orders that still have no courier
+     * and are still in the given status.
+     *
+     * @param assignments One [order_id, courier_id] row per order.
+     */
+    public void assignCouriers(List<int[]> assignments, int statusId) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE orders SET courier_id = ? WHERE id = ? AND courier_id IS NULL AND status_id = ?",
+            assignments, assignments.size(), (statement, assignment) -> {
+                statement.setInt(1, assignment[1]);
+                statement.setInt(2, assignment[0]);
+                statement.setInt(3, statusId);
+            });
+    }
+
+    /**
+     * Sets the courier of several order_views rows as one JDBC batch.
+     *
+     * @param assignments One [order_id, courier_id] row per order.
+     */
+    public void updateOrderViewCouriers(List<int[]> assignments) {
+        jdbcTemplate.batchUpdate("UPDATE order_views SET courier_id = ? WHERE order_id = ?",
+            assignments, assignments.size(), (statement, assignment) -> {
+                statement.setInt(1, assignment[1]);
+                statement.setInt(2, assignment[0]);
+            });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -36,81 +36,86 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     """)
     void deleteOrderById(@Param("orderId") int orderId);
 
-    // Add query to get orders with full details including products
+    // Queries to get orders with full details including products, served from the order_views read model,
+    // used by GET /api/orders. Each row is [id, customer_id, restaurant_id, courier_id, customer_address,
+    // restaurant_name, restaurant_address, status, products (JSON array), total_cost].
+    // Queries are keyset-paginated: each page starts strictly after the last order id of the previous page,
+    // so the cost of a page does not depend on how deep into the result set it is.
     @Query(nativeQuery = true, value = """
-        SELECT o.id, o.customer_id, o.restaurant_id, o.courier_id,                
-               CONCAT(ca.street_address, ', ', ca.city, ', ', ca.postal_code) as customer_address,
-               r.name as restaurant_name,
-               CONCAT(ra.street_address, ', ', ra.city, ', ', ra.postal_code) as restaurant_address,
-               os.name as status
-        FROM orders o
-        JOIN customers c ON o.customer_id = c.id
-        JOIN addresses ca ON c.address_id = ca.id
-        JOIN restaurants r ON o.restaurant_id = r.id
-        JOIN addresses ra ON r.address_id = ra.id
-        JOIN order_statuses os ON o.status_id = os.id
-        WHERE o.customer_id = :customerId
+        SELECT v.order_id, v.customer_id, v.restaurant_id, v.courier_id, v.customer_address,
+               v.restaurant_name, v.restaurant_address, v.status, v.products, v.total_cost
+        FROM order_views v
+        WHERE v.customer_id = :customerId AND v.order_id > :afterId
+        ORDER BY v.order_id
+        LIMIT :limit
         """)
-    List<Object[]> findOrdersWithDetailsByCustomerId(@Param("customerId") int customerId);
+    List<Object[]> findOrdersWithDetailsByCustomerIdAfter(@Param("customerId") int customerId,
+                                                          @Param("afterId") int afterId,
+                                                          @Param("limit") int limit);
 
     @Query(nativeQuery = true, value = """
-        SELECT o.id, o.customer_id, o.restaurant_id, o.courier_id,                
-               CONCAT(ca.street_address, ', ', ca.city, ', ', ca.postal_code) as customer_address,
-               r.name as restaurant_name,
-               CONCAT(ra.street_address, ', ', ra.city, ', ', ra.postal_code) as restaurant_address,
-               os.name as status
-        FROM orders o
-        JOIN customers c ON o.customer_id = c.id
-        JOIN addresses ca ON c.address_id = ca.id
-        JOIN restaurants r ON o.restaurant_id = r.id
-        JOIN addresses ra ON r.address_id = ra.id
-        JOIN order_statuses os ON o.status_id = os.id
-        WHERE o.restaurant_id = :restaurantId
+        SELECT v.order_id, v.customer_id, v.restaurant_id, v.courier_id, v.customer_address,
+               v.restaurant_name, v.restaurant_address, v.status, v.products, v.total_cost
+        FROM order_views v
+        WHERE v.restaurant_id = :restaurantId AND v.order_id > :afterId
+        ORDER BY v.order_id
+        LIMIT :limit
         """)
-    List<Object[]> findOrdersWithDetailsByRestaurantId(@Param("restaurantId") int restaurantId);
+    List<Object[]> findOrdersWithDetailsByRestaurantIdAfter(@Param("restaurantId") int restaurantId,
+                                                            @Param("afterId") int afterId,
+                                                            @Param("limit") int limit);
 
     @Query(nativeQuery = true, value = """
-        SELECT o.id, o.customer_id, o.restaurant_id, o.courier_id,                
-               CONCAT(ca.street_address, ', ', ca.city, ', ', ca.postal_code) as customer_address,
-               r.name as restaurant_name,
-               CONCAT(ra.street_address, ', ', ra.city, ', ', ra.postal_code) as restaurant_address,
-               os.name as status
-        FROM orders o
-        JOIN customers c ON o.customer_id = c.id
-        JOIN addresses ca ON c.address_id = ca.id
-        JOIN restaurants r ON o.restaurant_id = r.id
-        JOIN addresses ra ON r.address_id = ra.id
-        JOIN order_statuses os ON o.status_id = os.id
-        WHERE o.courier_id = :courierId
+        SELECT v.order_id, v.customer_id, v.restaurant_id, v.courier_id, v.customer_address,
+               v.restaurant_name, v.restaurant_address, v.status, v.products, v.total_cost
+        FROM order_views v
+        WHERE v.courier_id = :courierId AND v.order_id > :afterId
+        ORDER BY v.order_id
+        LIMIT :limit
         """)
-    List<Object[]> findOrdersWithDetailsByCourierId(@Param("courierId") int courierId);
+    List<Object[]> findOrdersWithDetailsByCourierIdAfter(@Param("courierId") int courierId,
+                                                         @Param("afterId") int afterId,
+                                                         @Param("limit") int limit);
 
+    /**
+     * Fills orders.total_cost for orders written before it existed, from the snapshotted unit costs
+     * of their product lines. Run after {@link ProductOrderRepository#backfillProductUnitCosts()}.
+     *
+     * @return The number of orders updated.
+     */
     @Modifying
     @Transactional
     @Query(nativeQuery = true, value = """
-        INSERT INTO orders (customer_id, restaurant_id, status_id) 
-        VALUES (:customerId, :restaurantId, :statusId)
+        UPDATE orders o
+        SET o.total_cost = (SELECT COALESCE(SUM(po.product_quantity * po.product_unit_cost), 0)
+                            FROM product_orders po
+                            WHERE po.order_id = o.id)
+        WHERE o.total_cost IS NULL
         """)
-    void createOrder(@Param("customerId") int customerId, 
-                     @Param("restaurantId") int restaurantId, 
-                     @Param("statusId") int statusId);
+    int backfillOrderTotals();
 
     @Query(nativeQuery = true, value = "SELECT LAST_INSERT_ID()")
     int getLastInsertedId();
 
+    // Returns [restaurant_id, restaurant_rating] of an order, used to keep the restaurant rating aggregates in sync.
+    // Locks the order until the transaction ends, so concurrent ratings of the same order apply their deltas one at a time
     @Query(nativeQuery = true, value = """
-        SELECT o.id, o.customer_id, o.restaurant_id, o.courier_id,             
-               CONCAT(ca.street_address, ', ', ca.city, ', ', ca.postal_code) as customer_address,
-               r.name as restaurant_name,
-               CONCAT(ra.street_address, ', ', ra.city, ', ', ra.postal_code) as restaurant_address,
-               os.name as status
-        FROM orders o
-        JOIN customers c ON o.customer_id = c.id
-        JOIN addresses ca ON c.address_id = ca.id
-        JOIN restaurants r ON o.restaurant_id = r.id
-        JOIN addresses ra ON r.address_id = ra.id
-        JOIN order_statuses os ON o.status_id = os.id
-        WHERE o.id = :orderId
+        SELECT o.restaurant_id, o.restaurant_rating FROM orders o WHERE o.id = :orderId FOR UPDATE
+        """)
+    List<Object[]> findRestaurantRatingByOrderIdForUpdate(@Param("orderId") int orderId);
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        UPDATE orders SET restaurant_rating = :rating WHERE id = :orderId
+        """)
+    void updateRestaurantRating(@Param("orderId") int orderId, @Param("rating") int rating);
+
+    @Query(nativeQuery = true, value = """
+        SELECT v.order_id, v.customer_id, v.restaurant_id, v.courier_id, v.customer_address,
+               v.restaurant_name, v.restaurant_address, v.status, v.products, v.total_cost
+        FROM order_views v
+        WHERE v.order_id = :orderId
         """)
     List<Object[]> findOrdersWithDetailsByOrderId(@Param("orderId") int orderId);
 }
@@ -0,0 +1,143 @@
+package com.rocketFoodDelivery.rocketFood.repository;
+
+import com.rocketFoodDelivery.rocketFood.models.OrderView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Write side of the order_views read model. The order routes read it through the
+ * findOrdersWithDetailsBy* queries of {@link OrderRepository}.
+ */
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Integer> {
+
+    /**
+     * Writes the order_views row of a new order from values the caller already has in memory,
+     * so creating an order does not join the normalized tables back.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        INSERT INTO order_views
+        (order_id, customer_id, restaurant_id, courier_id, customer_address, restaurant_name,
+         restaurant_address, status, products, total_cost)
+        VALUES (:orderId, :customerId, :restaurantId, :courierId, :customerAddress, :restaurantName,
+                :restaurantAddress, :status, :products, :totalCost)
+        """)
+    void insertOrderView(@Param("orderId") int orderId, @Param("customerId") int customerId,
+                         @Param("restaurantId") int restaurantId, @Param("courierId") Integer courierId,
+                         @Param("customerAddress") String customerAddress, @Param("restaurantName") String restaurantName,
+                         @Param("restaurantAddress") String restaurantAddress, @Param("status") String status,
+                         @Param("products") String products, @Param("totalCost") long totalCost);
+
+    /**
+     * Projects every order that has no order_views row yet, e.g. orders written before the read model existed.
+     * Expects the cost snapshots to be filled, see {@link OrderRepository#backfillOrderTotals()}.
+     *
+     * @return The number of rows inserted.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        INSERT INTO order_views
+        (order_id, customer_id, restaurant_id, courier_id, customer_address, restaurant_name,
+         restaurant_address, status, products, total_cost)
+        SELECT o.id, o.customer_id, o.restaurant_id, o.courier_id,
+               CONCAT(ca.street_address, ', ', ca.city, ', ', ca.postal_code),
+               r.name,
+               CONCAT(ra.street_address, ', ', ra.city, ', ', ra.postal_code),
+               os.name,
+               (SELECT COALESCE(JSON_ARRAYAGG(JSON_OBJECT(
+                           'product_id', po.product_id,
+                           'product_quantity', po.product_quantity,
+                           'unit_cost', po.product_unit_cost,
+                           'total_cost', po.product_quantity * po.product_unit_cost)), JSON_ARRAY())
+                FROM product_orders po
+                WHERE po.order_id = o.id),
+               o.total_cost
+        FROM orders o
+        JOIN customers c ON o.customer_id = c.id
+        JOIN addresses ca ON c.address_id = ca.id
+        JOIN restaurants r ON o.restaurant_id = r.id
+        JOIN addresses ra ON r.address_id = ra.id
+        JOIN order_statuses os ON o.status_id = os.id
+        WHERE NOT EXISTS (SELECT 1 FROM order_views v WHERE v.order_id = o.id)
+        """)
+    int insertMissingOrderViews();
+
+    /**
+     * Removes order_views rows whose order no longer exists.
+     *
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        DELETE v FROM order_views v
+        LEFT JOIN orders o ON o.id = v.order_id
+        WHERE o.id IS NULL
+        """)
+    int deleteOrphanOrderViews();
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        UPDATE order_views SET restaurant_name = :name WHERE restaurant_id = :restaurantId
+        """)
+    void updateOrderViewRestaurantName(@Param("restaurantId") int restaurantId, @Param("name") String name);
+
+    /**
+     * Rewrites the customer address of the order_views rows of every customer living at an address.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        UPDATE order_views v
+        JOIN customers c ON v.customer_id = c.id
+        JOIN addresses a ON c.address_id = a.id
+        SET v.customer_address = CONCAT(a.street_address, ', ', a.city, ', ', a.postal_code)
+        WHERE a.id = :addressId
+        """)
+    void updateOrderViewCustomerAddress(@Param("addressId") int addressId);
+
+    /**
+     * Rewrites the restaurant address of the order_views rows of every restaurant located at an address.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        UPDATE order_views v
+        JOIN restaurants r ON v.restaurant_id = r.id
+        JOIN addresses a ON r.address_id = a.id
+        SET v.restaurant_address = CONCAT(a.street_address, ', ', a.city, ', ', a.postal_code)
+        WHERE a.id = :addressId
+        """)
+    void updateOrderViewRestaurantAddress(@Param("addressId") int addressId);
+
+    /**
+     * Finds the orders whose customer or restaurant is at an address.
+     *
+     * @return One [order_id, customer_id, restaurant_id, courier_id] row per order; the courier may be null.
+     */
+    @Query(nativeQuery = true, value = """
+        SELECT v.order_id, v.customer_id, v.restaurant_id, v.courier_id
+        FROM order_views v
+        JOIN customers c ON v.customer_id = c.id
+        JOIN restaurants r ON v.restaurant_id = r.id
+        WHERE c.address_id = :addressId OR r.address_id = :addressId
+        """)
+    List<Object[]> findOrderOwnersByAddressId(@Param("addressId") int addressId);
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+        DELETE FROM order_views WHERE restaurant_id = :restaurantId
+        """)
+    void deleteOrderViewsByRestaurantId(@Param("restaurantId") int restaurantId);
+}
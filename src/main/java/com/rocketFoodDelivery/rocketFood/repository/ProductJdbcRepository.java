@@ -0,0 +1,46 @@
+package com.rocketFoodDelivery.rocketFood.repository;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiProductImportDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Product writes that need JDBC batching, which Spring Data native queries do not expose.
+ */
+@Repository
+public class ProductJdbcRepository {
+    private static final String INSERT_PRODUCT =
+        "INSERT INTO products (name, description, cost, restaurant_id) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProductJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the products of a restaurant as one JDBC batch. With rewriteBatchedStatements=true on the
+     * connection URL, Connector/J sends the batch as multi-row INSERT statements.
+     * Joins the caller's transaction.
+     *
+     * @param restaurantId The ID of the restaurant the products belong to.
+     * @param products     The products to insert.
+     */
+    public void insertProducts(int restaurantId, List<ApiProductImportDTO> products) {
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, products, products.size(), (statement, product) -> {
+            statement.setString(1, product.getName());
+            if (product.getDescription() != null) {
+                statement.setString(2, product.getDescription());
+            } else {
+                statement.setNull(2, Types.VARCHAR);
+            }
+            statement.setInt(3, product.getCost());
+            statement.setInt(4, restaurantId);
+        });
+    }
+}
@@ -30,21 +30,26 @@ public interface ProductOrderRepository extends JpaRepository<ProductOrder, Inte
     @Override
     void deleteById(Integer productOrderId);
     @Query(nativeQuery = true, value = """
-        SELECT po.product_id, p.name as product_name, po.product_quantity as quantity, p.cost as unit_cost,
-               (po.product_quantity * p.cost) as total_cost
+        SELECT po.product_id, p.name as product_name, po.product_quantity as quantity, po.product_unit_cost as unit_cost,
+               (po.product_quantity * po.product_unit_cost) as total_cost
         FROM product_orders po
         JOIN products p ON po.product_id = p.id
         WHERE po.order_id = :orderId
         """)
     List<Object[]> findProductsByOrderId(@Param("orderId") int orderId);
 
+    /**
+     * Copies the current product cost into product lines written before unit costs were snapshotted.
+     *
+     * @return The number of lines updated.
+     */
     @Modifying
     @Transactional
     @Query(nativeQuery = true, value = """
-        INSERT INTO product_orders (order_id, product_id, product_quantity) 
-        VALUES (:orderId, :productId, :product_quantity)
+        UPDATE product_orders po
+        JOIN products p ON p.id = po.product_id
+        SET po.product_unit_cost = p.cost
+        WHERE po.product_unit_cost IS NULL
         """)
-    void createProductOrder(@Param("orderId") int orderId, 
-                           @Param("productId") int productId, 
-                           @Param("product_quantity") int productQuantity);
+    int backfillProductUnitCosts();
 }
@@ -48,4 +48,27 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
 
     // Add this method
     List<Product> findByRestaurant_Id(int restaurantId);
+
+    @Query(nativeQuery = true, value = "SELECT LAST_INSERT_ID() AS id")
+    int getLastInsertedId();
+
+    /**
+     * Reads the searchable fields of every product, to build the CatalogSearchIndex.
+     *
+     * @return One Object array per product: id, restaurant_id, name, description, cost.
+     */
+    @Query(nativeQuery = true, value =
+    """
+    SELECT p.id, p.restaurant_id, p.name, p.description, p.cost FROM products p
+    """)
+    List<Object[]> findProductSearchRows();
+
+    /**
+     * Same as {@link #findProductSearchRows()} for the products of one restaurant.
+     */
+    @Query(nativeQuery = true, value =
+    """
+    SELECT p.id, p.restaurant_id, p.name, p.description, p.cost FROM products p WHERE p.restaurant_id = :restaurantId
+    """)
+    List<Object[]> findProductSearchRowsByRestaurantId(@Param("restaurantId") int restaurantId);
 }
@@ -18,6 +18,9 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Integer>
 
     /**
      * Finds a restaurant by its ID (GET) along with the calculated average rating rounded up to the ceiling.
+     * The average is read from the rating_sum and rating_count aggregates instead of the orders table.
+     * It is rounded up with integer division: CEIL over `/` would see the quotient already rounded to
+     * div_precision_increment decimals, e.g. 2.0000 for 60001 / 30000, unlike the in-memory RestaurantIndex.
      *
      * @param restaurantId The ID of the restaurant to retrieve.
      * @return A list of Object arrays representing the selected columns from the query result.
@@ -26,11 +29,9 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Integer>
      */
     @Query(nativeQuery = true, value =
         """
-        SELECT r.id, r.name, r.price_range, COALESCE(CEIL(SUM(o.restaurant_rating) / NULLIF(COUNT(o.id), 0)), 0) AS rating 
-        FROM restaurants r 
-        LEFT JOIN orders o ON r.id = o.restaurant_id 
-        WHERE r.id = :restaurantId 
-        GROUP BY r.id
+        SELECT r.id, r.name, r.price_range, COALESCE((r.rating_sum + r.rating_count - 1) DIV NULLIF(r.rating_count, 0), 0) AS rating
+        FROM restaurants r
+        WHERE r.id = :restaurantId
         """)
     List<Object[]> findRestaurantWithAverageRatingById(@Param("restaurantId") int restaurantId);
     
@@ -38,7 +39,7 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Integer>
      * Finds restaurants based on the provided rating and price range.
      *
      * Executes a native SQL query that retrieves restaurants (GET) with their information, including a calculated
-     * average rating rounded up to the ceiling.
+     * average rating rounded up to the ceiling. Only the restaurants table is scanned.
      *
      * @param rating     The minimum rounded-up average rating of the restaurants. (Optional)
      * @param priceRange The price range of the restaurants. (Optional)
@@ -49,13 +50,12 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Integer>
     @Query(nativeQuery = true, value =
         """
         SELECT * FROM (
-           SELECT r.id, r.name, r.price_range, COALESCE(CEIL(SUM(o.restaurant_rating) / NULLIF(COUNT(o.id), 0)), 0) AS rating
-            FROM restaurants r
-           LEFT JOIN orders o ON r.id = o.restaurant_id
+           SELECT r.id, r.name, r.price_range, COALESCE((r.rating_sum + r.rating_count - 1) DIV NULLIF(r.rating_count, 0), 0) AS rating
+           FROM restaurants r
            WHERE (:priceRange IS NULL OR r.price_range = :priceRange)
-           GROUP BY r.id
         ) AS result
         WHERE (:rating IS NULL OR result.rating = :rating)
+        ORDER BY result.id
         """)
     List<Object[]> findRestaurantsByRatingAndPriceRange(@Param("rating") Integer rating, @Param("priceRange") Integer priceRange);
 
@@ -122,4 +122,51 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Integer>
         """)
     void deleteRestaurantById(@Param("restaurantId") int restaurantId);
 
+    /**
+     * Applies a change to the rating aggregates of a restaurant, e.g. (0, 1) for a new order
+     * or (newRating - oldRating, 0) when an order is rated.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value =
+        """
+        UPDATE restaurants
+        SET rating_sum = rating_sum + :sumDelta, rating_count = rating_count + :countDelta
+        WHERE id = :restaurantId
+        """)
+    void applyRatingDelta(@Param("restaurantId") int restaurantId, @Param("sumDelta") long sumDelta,
+                          @Param("countDelta") int countDelta);
+
+    /**
+     * Recomputes rating_sum and rating_count of every restaurant from the orders table.
+     * Used to backfill the aggregates of existing data and to repair drift.
+     *
+     * @return The number of restaurants updated.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value =
+        """
+        UPDATE restaurants r
+        LEFT JOIN (
+            SELECT restaurant_id, COALESCE(SUM(restaurant_rating), 0) AS rating_sum, COUNT(id) AS rating_count
+            FROM orders
+            GROUP BY restaurant_id
+        ) o ON o.restaurant_id = r.id
+        SET r.rating_sum = COALESCE(o.rating_sum, 0), r.rating_count = COALESCE(o.rating_count, 0)
+        """)
+    int backfillRatingAggregates();
+
+    /**
+     * Reads what the in-memory RestaurantIndex holds for every restaurant, to build or verify it.
+     *
+     * @return One Object array per restaurant: id, name, price_range, rating_sum, rating_count.
+     */
+    @Query(nativeQuery = true, value =
+        """
+        SELECT r.id, r.name, r.price_range, r.rating_sum, r.rating_count
+        FROM restaurants r
+        """)
+    List<Object[]> findRestaurantIndexSnapshot();
+
 }
@@ -45,8 +45,8 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain2(HttpSecurity http) throws Exception{
-        http.csrf().disable();
-        http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+        http.csrf(csrf -> csrf.disable());
+        http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         http.authorizeRequests()
                 .requestMatchers("/api/auth").permitAll()
                 .requestMatchers("/backoffice/**").permitAll()
@@ -56,7 +56,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/orders").permitAll()
                 .requestMatchers("/api/**").permitAll()
                 .anyRequest().authenticated();
-        http.exceptionHandling()
+        http.exceptionHandling(exceptions -> exceptions
                 .authenticationEntryPoint(
                         (request, response, ex) -> {
                             response.sendError(
@@ -64,7 +64,7 @@ public class SecurityConfig {
                                     ex.getMessage()
                             );
                         }
-                );
+                ));
         http.addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
@@ -1,7 +1,11 @@
 package com.rocketFoodDelivery.rocketFood.service;
 
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.OrderCache;
 import com.rocketFoodDelivery.rocketFood.models.Address;
 import com.rocketFoodDelivery.rocketFood.repository.AddressRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderViewRepository;
+import com.rocketFoodDelivery.rocketFood.util.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
@@ -14,10 +18,17 @@ import java.util.Optional;
 @Service
 public class AddressService {
     private final AddressRepository addressRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderCache orderCache;
+    private final ChangeVersionTracker changeVersionTracker;
 
     @Autowired
-    public AddressService(AddressRepository addressRepository){
+    public AddressService(AddressRepository addressRepository, OrderViewRepository orderViewRepository,
+                          OrderCache orderCache, ChangeVersionTracker changeVersionTracker){
         this.addressRepository = addressRepository;
+        this.orderViewRepository = orderViewRepository;
+        this.orderCache = orderCache;
+        this.changeVersionTracker = changeVersionTracker;
     }
 
     public Optional<Address> findById(int id){
@@ -33,8 +44,26 @@ public class AddressService {
         }
     }
     
+    /**
+     * Creates or updates an address. When an existing address changes, the order_views rows of the customers
+     * and restaurants at that address are rewritten, and their cached orders and order list ETags are dropped
+     * once the change has committed, like a restaurant rename.
+     */
+    @Transactional
     public Address saveAddress(Address address){
-        return addressRepository.save(address);
+        boolean existing = address.getId() != 0 && addressRepository.existsById(address.getId());
+        Address saved = addressRepository.saveAndFlush(address);
+        if (existing) {
+            orderViewRepository.updateOrderViewCustomerAddress(saved.getId());
+            orderViewRepository.updateOrderViewRestaurantAddress(saved.getId());
+            List<Object[]> owners = orderViewRepository.findOrderOwnersByAddressId(saved.getId());
+            AfterCommit.run(() -> owners.forEach(owner -> {
+                orderCache.invalidate(((Number) owner[0]).intValue());
+                changeVersionTracker.bumpOrderOwners(((Number) owner[1]).intValue(), ((Number) owner[2]).intValue(),
+                    owner[3] == null ? null : ((Number) owner[3]).intValue());
+            }));
+        }
+        return saved;
     }
 
     @Transactional
@@ -1,16 +1,222 @@
 package com.rocketFoodDelivery.rocketFood.service;
 
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCourierStatusBoardDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCourierStatusDTO;
+import com.rocketFoodDelivery.rocketFood.exception.BadRequestException;
+import com.rocketFoodDelivery.rocketFood.exception.ResourceNotFoundException;
+import com.rocketFoodDelivery.rocketFood.index.CourierPool;
+import com.rocketFoodDelivery.rocketFood.index.CourierStatusBoard;
+import com.rocketFoodDelivery.rocketFood.models.CourierStatus;
+import com.rocketFoodDelivery.rocketFood.models.OrderStatus;
+import com.rocketFoodDelivery.rocketFood.repository.CourierJdbcRepository;
 import com.rocketFoodDelivery.rocketFood.repository.CourierRepository;
+import com.rocketFoodDelivery.rocketFood.util.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CourierService {
+    static final String FREE_STATUS = "free";
+    static final String BUSY_STATUS = "busy";
 
     CourierRepository courierRepository;
+    private final CourierJdbcRepository courierJdbcRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final CourierPool courierPool;
+    private final CourierStatusBoard courierStatusBoard;
 
     @Autowired
-    public CourierService(CourierRepository courierRepository) {
+    public CourierService(CourierRepository courierRepository, CourierJdbcRepository courierJdbcRepository,
+                          ReferenceDataRegistry referenceDataRegistry, CourierPool courierPool,
+                          CourierStatusBoard courierStatusBoard) {
         this.courierRepository = courierRepository;
+        this.courierJdbcRepository = courierJdbcRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.courierPool = courierPool;
+        this.courierStatusBoard = courierStatusBoard;
+    }
+
+    /**
+     * Reloads the dispatch pool with every active courier whose status is free.
+     * @return The number of couriers in the pool.
+     */
+    public int rebuildCourierPool() {
+        int freeStatusId = referenceDataRegistry.courierStatusId(FREE_STATUS);
+        List<CourierPool.PooledCourier> free = courierJdbcRepository.findActiveCourierLocationsByStatus(freeStatusId).stream()
+            .map(row -> new CourierPool.PooledCourier((Integer) row[0], (Double) row[1], (Double) row[2], (String) row[3]))
+            .collect(Collectors.toList());
+        courierPool.rebuild(free);
+        return free.size();
+    }
+
+    /**
+     * Reloads the status board with the status and city of every courier.
+     * @return The number of couriers on the board.
+     */
+    public int rebuildStatusBoard() {
+        List<CourierStatusBoard.Entry> entries = courierJdbcRepository.findCourierStatuses().stream()
+            .map(row -> new CourierStatusBoard.Entry((Integer) row[0], (Integer) row[1], (String) row[2]))
+            .collect(Collectors.toList());
+        courierStatusBoard.rebuild(entries);
+        return entries.size();
+    }
+
+    /**
+     * Reads the number of couriers per status and per city from the in-memory status board.
+     * @param status When given, the ids of the couriers in this status are included.
+     * @throws BadRequestException if the status is unknown
+     */
+    public ApiCourierStatusBoardDTO getStatusBoard(String status) {
+        Map<Integer, String> names = new LinkedHashMap<>();
+        referenceDataRegistry.getCourierStatuses().forEach(courierStatus -> names.put(courierStatus.getId(), courierStatus.getName()));
+
+        Map<Integer, Long> counts = courierStatusBoard.getStatusCounts();
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Integer, String> name : names.entrySet()) {
+            long count = counts.getOrDefault(name.getKey(), 0L);
+            statuses.put(name.getValue(), count);
+            total += count;
+        }
+        Map<String, Map<String, Long>> cities = new LinkedHashMap<>();
+        courierStatusBoard.getCityCounts().forEach((city, cityCounts) -> {
+            Map<String, Long> byName = new LinkedHashMap<>();
+            cityCounts.forEach((statusId, count) -> byName.put(names.getOrDefault(statusId, String.valueOf(statusId)), count));
+            cities.put(city, byName);
+        });
+
+        List<Integer> courierIds = null;
+        if (status != null) {
+            CourierStatus courierStatus = referenceDataRegistry.findCourierStatusByName(status.trim())
+                .orElseThrow(() -> new BadRequestException("Invalid status: " + status));
+            courierIds = courierStatusBoard.getCourierIds(courierStatus.getId());
+        }
+        return new ApiCourierStatusBoardDTO(total, statuses, cities, courierIds);
+    }
+
+    /**
+     * Changes the status of a courier. A courier becoming free joins the dispatch pool, and any other
+     * status takes them out of it, once the change has committed. The status board follows as well.
+     * @throws ResourceNotFoundException if the courier does not exist
+     * @throws BadRequestException if the status is unknown
+     */
+    @Transactional
+    public ApiCourierStatusDTO updateCourierStatus(int courierId, String status) {
+        if (status == null) {
+            throw new BadRequestException("Status is required");
+        }
+        CourierStatus target = referenceDataRegistry.findCourierStatusByName(status.trim())
+            .orElseThrow(() -> new BadRequestException("Invalid status: " + status));
+        Object[] courier = courierJdbcRepository.findCourierLocation(courierId);
+        if (courier == null) {
+            throw new ResourceNotFoundException("Courier with id " + courierId + " not found");
+        }
+        courierJdbcRepository.updateCourierStatus(courierId, target.getId());
+
+        boolean joinsPool = FREE_STATUS.equalsIgnoreCase(target.getName()) && (Boolean) courier[5];
+        AfterCommit.run(() -> {
+            courierStatusBoard.update(courierId, target.getId(), (String) courier[3]);
+            if (joinsPool) {
+                courierPool.add(new CourierPool.PooledCourier(courierId, (Double) courier[1], (Double) courier[2], (String) courier[3]));
+            } else {
+                courierPool.remove(courierId);
+            }
+        });
+        return new ApiCourierStatusDTO(target.getName());
+    }
+
+    /**
+     * Marks couriers taken from the dispatch pool as busy, skipping any that are no longer free.
+     * @return The couriers that were marked busy.
+     */
+    @Transactional
+    public Set<Integer> claimCouriers(List<Integer> courierIds) {
+        int busyStatusId = referenceDataRegistry.courierStatusId(BUSY_STATUS);
+        int[] updated = courierJdbcRepository.updateCourierStatuses(courierIds,
+            referenceDataRegistry.courierStatusId(FREE_STATUS), busyStatusId);
+        Set<Integer> claimed = new LinkedHashSet<>();
+        for (int i = 0; i < courierIds.size(); i++) {
+            if (updated[i] > 0) {
+                claimed.add(courierIds.get(i));
+            }
+        }
+        // A concurrent status change may have put them back in the pool meanwhile
+        AfterCommit.run(() -> claimed.forEach(courierId -> {
+            courierPool.remove(courierId);
+            courierStatusBoard.update(courierId, busyStatusId, null);
+        }));
+        return claimed;
+    }
+
+    /**
+     * Makes couriers marked busy by {@link #claimCouriers(List)} free again, e.g. when their order was
+     * assigned elsewhere in the meantime, and returns them to the dispatch pool.
+     */
+    @Transactional
+    public void releaseCouriers(List<CourierPool.PooledCourier> couriers) {
+        if (couriers.isEmpty()) {
+            return;
+        }
+        List<Integer> courierIds = couriers.stream().map(CourierPool.PooledCourier::getId).collect(Collectors.toList());
+        int freeStatusId = referenceDataRegistry.courierStatusId(FREE_STATUS);
+        int[] updated = courierJdbcRepository.updateCourierStatuses(courierIds,
+            referenceDataRegistry.courierStatusId(BUSY_STATUS), freeStatusId);
+        List<CourierPool.PooledCourier> released = new ArrayList<>();
+        for (int i = 0; i < couriers.size(); i++) {
+            if (updated[i] > 0) {
+                released.add(couriers.get(i));
+            }
+        }
+        AfterCommit.run(() -> released.forEach(courier -> {
+            courierPool.add(courier);
+            courierStatusBoard.update(courier.getId(), freeStatusId, courier.getCity());
+        }));
+    }
+
+    /**
+     * Makes the couriers of orders that were just delivered, cancelled or deleted free again, unless they still carry
+     * another unfinished order, and returns them to the dispatch pool once the change has committed.
+     * @return The couriers that were made free.
+     */
+    @Transactional
+    public List<Integer> releaseCouriersOfFinishedOrders(List<Integer> courierIds) {
+        if (courierIds.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> finishedStatusIds = referenceDataRegistry.getOrderStatuses().stream()
+            .map(OrderStatus::getId)
+            .filter(referenceDataRegistry::isTerminalOrderStatus)
+            .collect(Collectors.toList());
+        int freeStatusId = referenceDataRegistry.courierStatusId(FREE_STATUS);
+        int[] updated = courierJdbcRepository.releaseIdleCouriers(courierIds,
+            referenceDataRegistry.courierStatusId(BUSY_STATUS), freeStatusId, finishedStatusIds);
+        List<Integer> releasedIds = new ArrayList<>();
+        for (int i = 0; i < courierIds.size(); i++) {
+            if (updated[i] > 0) {
+                releasedIds.add(courierIds.get(i));
+            }
+        }
+        if (releasedIds.isEmpty()) {
+            return releasedIds;
+        }
+        List<CourierPool.PooledCourier> released = courierJdbcRepository.findActiveCourierLocations(releasedIds).stream()
+            .map(row -> new CourierPool.PooledCourier((Integer) row[0], (Double) row[1], (Double) row[2], (String) row[3]))
+            .collect(Collectors.toList());
+        AfterCommit.run(() -> {
+            // Inactive couriers are free but are not dispatched to
+            releasedIds.forEach(courierId -> courierStatusBoard.update(courierId, freeStatusId, null));
+            released.forEach(courierPool::add);
+        });
+        return releasedIds;
     }
 }
@@ -1,21 +1,21 @@
 package com.rocketFoodDelivery.rocketFood.service;
 
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
 import com.rocketFoodDelivery.rocketFood.models.CourierStatus;
-import com.rocketFoodDelivery.rocketFood.repository.CourierStatusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class CourierStatusService {
 
-    CourierStatusRepository courierStatusRepository;
+    ReferenceDataRegistry referenceDataRegistry;
     
     @Autowired
-    public CourierStatusService(CourierStatusRepository courierStatusRepository){
-        this.courierStatusRepository = courierStatusRepository;
+    public CourierStatusService(ReferenceDataRegistry referenceDataRegistry){
+        this.referenceDataRegistry = referenceDataRegistry;
     }
 
     public CourierStatus findByName(String name) {
-        return courierStatusRepository.findByName(name);
+        return referenceDataRegistry.findCourierStatusByName(name).orElse(null);
     }
 }
@@ -0,0 +1,172 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
+import com.rocketFoodDelivery.rocketFood.index.CourierPool;
+import com.rocketFoodDelivery.rocketFood.repository.OrderJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns pending orders to free couriers (app.dispatch.enabled).
+ *
+ * Every app.dispatch.interval-millis a single thread reads up to app.dispatch.batch-size of the oldest
+ * pending orders without a courier, after the last order the previous round read, and matches each with the
+ * nearest free courier of the {@link CourierPool},
+ * within app.dispatch.max-distance-km of the restaurant. Matching happens in memory; the whole round is then
+ * written in one transaction: the couriers are marked busy, the orders get their courier and the order read
+ * model is updated, each as one batch.
+ *
+ * Every write is conditional, so a courier who went offline or an order that was cancelled in between is
+ * simply skipped: couriers matched with an order that could not be assigned are made free again and go back
+ * to the pool.
+ *
+ * The cursor moves past orders that found no courier, e.g. with no courier within reach of their restaurant,
+ * so they cannot hold back newer orders; once a round reaches the newest pending order, the next one starts
+ * again from the oldest.
+ */
+@Service
+public class DispatchService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DispatchService.class);
+
+    private final OrderService orderService;
+    private final CourierService courierService;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final CourierPool courierPool;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long intervalMillis;
+    private final int batchSize;
+    private final double maxDistanceKm;
+
+    private ScheduledExecutorService scheduler;
+    private int afterOrderId; // Guarded by this
+
+    @Autowired
+    public DispatchService(OrderService orderService, CourierService courierService,
+                           OrderJdbcRepository orderJdbcRepository, ReferenceDataRegistry referenceDataRegistry,
+                           CourierPool courierPool, TransactionTemplate transactionTemplate,
+                           @Value("${app.dispatch.enabled:false}") boolean enabled,
+                           @Value("${app.dispatch.interval-millis:500}") long intervalMillis,
+                           @Value("${app.dispatch.batch-size:200}") int batchSize,
+                           @Value("${app.dispatch.max-distance-km:10}") double maxDistanceKm) {
+        this.orderService = orderService;
+        this.courierService = courierService;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.courierPool = courierPool;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+        this.maxDistanceKm = maxDistanceKm;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "courier-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::dispatchSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("Courier dispatch started: every {} ms, up to {} orders, within {} km", intervalMillis, batchSize, maxDistanceKm);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Runs one dispatch round. Does nothing until the courier pool has been loaded.
+     *
+     * @return The number of orders assigned.
+     */
+    public synchronized int dispatchPendingOrders() {
+        if (!courierPool.isReady() || courierPool.size() == 0) {
+            return 0;
+        }
+        int pendingStatusId = referenceDataRegistry.orderStatusId(OrderService.PENDING_STATUS);
+        List<Object[]> orders = orderJdbcRepository.findUnassignedOrders(pendingStatusId, afterOrderId, batchSize);
+        afterOrderId = orders.size() < batchSize ? 0 : (Integer) orders.get(orders.size() - 1)[0];
+
+        // order id -> matched courier, already taken out of the pool
+        Map<Integer, CourierPool.PooledCourier> matches = new LinkedHashMap<>();
+        for (Object[] order : orders) {
+            CourierPool.PooledCourier courier = courierPool.claimNearest(
+                (Double) order[1], (Double) order[2], (String) order[3], maxDistanceKm);
+            if (courier != null) {
+                matches.put((Integer) order[0], courier);
+            }
+        }
+        if (matches.isEmpty()) {
+            return 0;
+        }
+
+        List<int[]> assigned;
+        try {
+            assigned = transactionTemplate.execute(status -> assign(matches));
+        } catch (RuntimeException e) {
+            // Nothing was written, so every matched courier is still free
+            matches.values().forEach(courierPool::add);
+            throw e;
+        }
+        LOGGER.debug("Dispatch round: {} pending orders, {} matched, {} assigned", orders.size(), matches.size(), assigned.size());
+        return assigned.size();
+    }
+
+    private List<int[]> assign(Map<Integer, CourierPool.PooledCourier> matches) {
+        List<Integer> courierIds = matches.values().stream()
+            .map(CourierPool.PooledCourier::getId)
+            .collect(Collectors.toList());
+        Set<Integer> claimed = courierService.claimCouriers(courierIds);
+
+        List<int[]> assignments = new ArrayList<>(claimed.size());
+        matches.forEach((orderId, courier) -> {
+            if (claimed.contains(courier.getId())) {
+                assignments.add(new int[] { orderId, courier.getId() });
+            }
+        });
+        List<int[]> assigned = orderService.assignCouriers(assignments);
+
+        Set<Integer> busy = new HashSet<>();
+        assigned.forEach(assignment -> busy.add(assignment[1]));
+        courierService.releaseCouriers(matches.values().stream()
+            .filter(courier -> claimed.contains(courier.getId()) && !busy.contains(courier.getId()))
+            .collect(Collectors.toList()));
+        return assigned;
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatchPendingOrders();
+        } catch (RuntimeException e) {
+            LOGGER.error("Courier dispatch round failed", e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import com.rocketFoodDelivery.rocketFood.cache.LruCache;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiBatchOrderResultDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateOrderDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiIngestionMetricsDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiIngestionStatusDTO;
+import com.rocketFoodDelivery.rocketFood.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Optional asynchronous write path for POST /api/orders (app.orders.ingestion.enabled).
+ *
+ * Requests are put on a bounded queue and acknowledged with a ticket. A single writer thread drains up to
+ * app.orders.ingestion.max-batch-size orders at a time and commits them together through
+ * {@link OrderService#createOrders(List)}, so one transaction commit is shared by every order of the batch.
+ * A full queue rejects new orders instead of letting latency grow without bound.
+ */
+@Service
+public class OrderIngestionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderIngestionService.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final long responseWaitMillis;
+    private final BlockingQueue<Ticket> queue;
+    private final LruCache<String, Ticket> tickets;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder ordersProcessed = new LongAdder();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger largestBatchSize = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * An accepted order and the future of its result.
+     */
+    public static final class Ticket {
+        private final String id = UUID.randomUUID().toString();
+        private final ApiCreateOrderDTO order;
+        private final CompletableFuture<ApiBatchOrderResultDTO> result = new CompletableFuture<>();
+
+        Ticket(ApiCreateOrderDTO order) {
+            this.order = order;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public CompletableFuture<ApiBatchOrderResultDTO> getResult() {
+            return result;
+        }
+
+        public ApiIngestionStatusDTO toStatus() {
+            ApiBatchOrderResultDTO done = result.getNow(null);
+            if (done == null) {
+                return new ApiIngestionStatusDTO(id, ApiIngestionStatusDTO.QUEUED, null, null);
+            }
+            Integer orderId = done.getOrder() != null ? done.getOrder().getId() : null;
+            return new ApiIngestionStatusDTO(id, done.getStatus(), orderId, done.getError());
+        }
+    }
+
+    @Autowired
+    public OrderIngestionService(OrderService orderService,
+                                 @Value("${app.orders.ingestion.enabled:false}") boolean enabled,
+                                 @Value("${app.orders.ingestion.queue-capacity:10000}") int capacity,
+                                 @Value("${app.orders.ingestion.max-batch-size:200}") int maxBatchSize,
+                                 @Value("${app.orders.ingestion.response-wait-millis:50}") long responseWaitMillis,
+                                 @Value("${app.orders.ingestion.ticket-ttl-seconds:3600}") long ticketTtlSeconds) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.responseWaitMillis = responseWaitMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.tickets = new LruCache<>(Math.max(capacity * 10, 1000), ticketTtlSeconds * 1000);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues an order for the writer thread.
+     *
+     * @return The ticket to follow the order with.
+     * @throws TooManyRequestsException When the queue is full.
+     */
+    public Ticket submit(ApiCreateOrderDTO order) {
+        Ticket ticket = new Ticket(order);
+        if (!queue.offer(ticket)) {
+            rejected.increment();
+            throw new TooManyRequestsException("Order queue is full, retry later");
+        }
+        submitted.increment();
+        tickets.put(ticket.getId(), ticket);
+        return ticket;
+    }
+
+    /**
+     * Waits up to app.orders.ingestion.response-wait-millis for the ticket's batch to be committed,
+     * so lightly loaded instances can still answer with the created order.
+     *
+     * @return The result, or null if the order is still queued.
+     */
+    public ApiBatchOrderResultDTO awaitResult(Ticket ticket) {
+        try {
+            return ticket.result.get(responseWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * @return The status of a ticket, or null when it is unknown or expired.
+     */
+    public ApiIngestionStatusDTO getStatus(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        return ticket != null ? ticket.toStatus() : null;
+    }
+
+    public ApiIngestionMetricsDTO getMetrics() {
+        long batchCount = batches.sum();
+        long written = ordersProcessed.sum();
+        return new ApiIngestionMetricsDTO(enabled, queue.size(), capacity, submitted.sum(), rejected.sum(),
+            batchCount, written, lastBatchSize.get(), largestBatchSize.get(),
+            batchCount == 0 ? 0.0 : (double) written / batchCount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "order-ingestion-writer");
+        writer.setDaemon(true);
+        writer.start();
+        LOGGER.info("Order ingestion queue started: capacity {}, batches of up to {}", capacity, maxBatchSize);
+    }
+
+    /**
+     * Stops accepting work and lets the writer flush what is already queued.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void drain() {
+        List<Ticket> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Ticket first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void writeBatch(List<Ticket> batch) {
+        try {
+            List<ApiBatchOrderResultDTO> results = orderService.createOrders(
+                batch.stream().map(ticket -> ticket.order).collect(Collectors.toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Order ingestion batch of {} failed", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(ApiBatchOrderResultDTO.failed(i, ApiBatchOrderResultDTO.ERROR, e.getMessage()));
+            }
+        }
+        batches.increment();
+        ordersProcessed.add(batch.size());
+        lastBatchSize.set(batch.size());
+        largestBatchSize.accumulateAndGet(batch.size(), Math::max);
+    }
+}
@@ -1,63 +1,118 @@
 package com.rocketFoodDelivery.rocketFood.service;
 
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.OrderCache;
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiBatchOrderResultDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCacheStatsDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderDTO;
-import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderRequestDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderEventDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderHistoryEntryDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderPageDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateOrderDTO; 
 import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderStatusDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderStatusResultDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiProductForOrderApiDTO;
-import com.rocketFoodDelivery.rocketFood.models.Order;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiRestaurantRatingDTO;
 import com.rocketFoodDelivery.rocketFood.models.OrderStatus;
-import com.rocketFoodDelivery.rocketFood.models.UserEntity;          
-import com.rocketFoodDelivery.rocketFood.models.Restaurant;    
-import com.rocketFoodDelivery.rocketFood.models.Product;       
-import com.rocketFoodDelivery.rocketFood.models.Customer;      
-import com.rocketFoodDelivery.rocketFood.models.Courier;       
+import com.rocketFoodDelivery.rocketFood.repository.OrderJdbcRepository;
 import com.rocketFoodDelivery.rocketFood.repository.OrderRepository;
-import com.rocketFoodDelivery.rocketFood.repository.UserRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderViewRepository;
 import com.rocketFoodDelivery.rocketFood.repository.RestaurantRepository;
-import com.rocketFoodDelivery.rocketFood.repository.ProductRepository;
-import com.rocketFoodDelivery.rocketFood.repository.OrderStatusRepository;
-import com.rocketFoodDelivery.rocketFood.repository.ProductOrderRepository;
-import com.rocketFoodDelivery.rocketFood.repository.CustomerRepository;
+import com.rocketFoodDelivery.rocketFood.events.OrderEventDispatcher;
+import com.rocketFoodDelivery.rocketFood.events.OrderEventLog;
+import com.rocketFoodDelivery.rocketFood.events.OrderEventRecord;
+import com.rocketFoodDelivery.rocketFood.events.OrderHistoryProjection;
+import com.rocketFoodDelivery.rocketFood.index.RestaurantIndex;
 import com.rocketFoodDelivery.rocketFood.exception.ResourceNotFoundException;
+import com.rocketFoodDelivery.rocketFood.exception.ConflictException;
 import com.rocketFoodDelivery.rocketFood.exception.InvalidStatusTransitionException;
 import com.rocketFoodDelivery.rocketFood.exception.InsufficientInventoryException; 
+import com.rocketFoodDelivery.rocketFood.exception.ValidationException;
+import com.rocketFoodDelivery.rocketFood.util.AfterCommit;
+import com.rocketFoodDelivery.rocketFood.util.OrderCursor;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
-    @PersistenceContext
-    private EntityManager entityManager;
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderService.class);
+    private static final ObjectReader PRODUCT_LINES_READER = new ObjectMapper()
+        .readerFor(new TypeReference<List<ApiProductForOrderApiDTO>>() {});
+    private static final ObjectWriter PRODUCT_LINES_WRITER = new ObjectMapper()
+        .writerFor(new TypeReference<List<ApiProductForOrderApiDTO>>() {});
+
+    static final String PENDING_STATUS = "pending";
+
+    // Order status -> statuses an order must currently be in to be moved to it
+    static final Map<String, Set<String>> STATUS_PREDECESSORS = Map.of(
+        "pending", Set.of(),
+        "in progress", Set.of("pending"),
+        "delivered", Set.of("in progress"),
+        "cancelled", Set.of("pending", "in progress")
+    );
 
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
-    private final ProductRepository productRepository;
-    private final OrderStatusRepository orderStatusRepository;
-    private final ProductOrderRepository productOrderRepository;
-    private final CustomerRepository customerRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final OrderViewRepository orderViewRepository;
+    private final OrderCache orderCache;
+    private final ChangeVersionTracker changeVersionTracker;
+    private final RestaurantIndex restaurantIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderEventDispatcher orderEventDispatcher;
+    private final OrderEventLog orderEventLog;
+    private final OrderHistoryProjection orderHistoryProjection;
+    private final CourierService courierService;
     
     @Autowired
-    public OrderService(OrderRepository orderRepository, UserRepository userRepository,
-                       RestaurantRepository restaurantRepository, ProductRepository productRepository,
-                       OrderStatusRepository orderStatusRepository, ProductOrderRepository productOrderRepository,
-                       CustomerRepository customerRepository) {
+    public OrderService(OrderRepository orderRepository, RestaurantRepository restaurantRepository,
+                        ReferenceDataRegistry referenceDataRegistry, OrderJdbcRepository orderJdbcRepository,
+                        OrderViewRepository orderViewRepository, OrderCache orderCache,
+                        ChangeVersionTracker changeVersionTracker, RestaurantIndex restaurantIndex,
+                        TransactionTemplate transactionTemplate, OrderEventDispatcher orderEventDispatcher,
+                        OrderEventLog orderEventLog, OrderHistoryProjection orderHistoryProjection,
+                        CourierService courierService) {
         this.orderRepository = orderRepository;
-        this.userRepository = userRepository;
         this.restaurantRepository = restaurantRepository;
-        this.productRepository = productRepository;
-        this.orderStatusRepository = orderStatusRepository;
-        this.productOrderRepository = productOrderRepository;
-        this.customerRepository = customerRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.orderViewRepository = orderViewRepository;
+        this.orderCache = orderCache;
+        this.changeVersionTracker = changeVersionTracker;
+        this.restaurantIndex = restaurantIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.orderEventDispatcher = orderEventDispatcher;
+        this.orderEventLog = orderEventLog;
+        this.orderHistoryProjection = orderHistoryProjection;
+        this.courierService = courierService;
     }
 
     /**
@@ -74,121 +129,558 @@ public class OrderService {
     @Transactional
     public ApiOrderDTO createOrder(ApiCreateOrderDTO createOrderDTO) {
         try {
-            // 1. Validate customer exists
-            if (!customerRepository.existsById(createOrderDTO.getCustomerId())) {
-                throw new ResourceNotFoundException("Customer with id " + createOrderDTO.getCustomerId() + " not found");
+            int customerId = createOrderDTO.getCustomerId();
+            int restaurantId = createOrderDTO.getRestaurantId();
+            List<ApiCreateOrderDTO.ProductOrder> lines = linesOf(createOrderDTO);
+
+            // 1. Validate customer and restaurant exist (one statement)
+            Object[] context = orderJdbcRepository.findOrderContext(customerId, restaurantId);
+            if (context[0] == null) {
+                throw new ResourceNotFoundException("Customer with id " + customerId + " not found");
+            }
+            if (context[2] == null) {
+                throw new ResourceNotFoundException("Restaurant with id " + restaurantId + " not found");
             }
 
-            // 2. Validate restaurant exists
-            if (!restaurantRepository.existsById(createOrderDTO.getRestaurantId())) {
-                throw new ResourceNotFoundException("Restaurant with id " + createOrderDTO.getRestaurantId() + " not found");
+            // 2. Validate products exist and belong to the restaurant (one statement)
+            Map<Integer, Object[]> products = lines.isEmpty()
+                ? Map.of()
+                : findProductsForOrders(List.of(createOrderDTO));
+            validateProducts(createOrderDTO, products);
+
+            // 3. Build the order from what was validated, pricing its lines at the current product costs
+            ApiOrderDTO createdOrder = buildCreatedOrder(createOrderDTO,
+                (String) context[1], (String) context[3], (String) context[4], products);
+
+            // 4. Insert the order with its total, reading its id from the generated keys
+            int newOrderId = orderJdbcRepository.insertOrder(customerId, restaurantId,
+                referenceDataRegistry.orderStatusId(PENDING_STATUS), createdOrder.getTotalCost());
+            createdOrder.setId(newOrderId);
+
+            // 5. Insert all product lines with their unit costs as one batch
+            if (!lines.isEmpty()) {
+                orderJdbcRepository.insertProductOrders(productOrderRows(createdOrder));
             }
 
-            // 3. Validate products exist
-            for (ApiCreateOrderDTO.ProductOrder productOrder : createOrderDTO.getProducts()) {
-                Optional<Product> product = productRepository.findById(productOrder.getId());
-                if (product.isEmpty()) {
-                    throw new ResourceNotFoundException("Product with id " + productOrder.getId() + " not found");
+            // 6. Count the order in the restaurant rating aggregates
+            restaurantRepository.applyRatingDelta(restaurantId, 0, 1);
+
+            // 7. Project the order into order_views
+            orderViewRepository.insertOrderView(newOrderId, customerId, restaurantId, null,
+                createdOrder.getCustomerAddress(), createdOrder.getRestaurantName(), createdOrder.getRestaurantAddress(),
+                PENDING_STATUS, PRODUCT_LINES_WRITER.writeValueAsString(createdOrder.getProducts()),
+                createdOrder.getTotalCost());
+
+            AfterCommit.run(() -> ordersCreated(List.of(createdOrder)));
+            return createdOrder;
+
+        } catch (ResourceNotFoundException | ValidationException | InsufficientInventoryException e) {
+            throw e; // Re-throw to be handled by GlobalExceptionHandler
+        } catch (Exception e) {
+            throw new RuntimeException("Error creating order: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates several orders at once. Customers, restaurants and products of the whole batch are validated
+     * with one query each, and the valid orders are written in a single transaction with JDBC batches.
+     * Invalid orders are reported without affecting the others. If the batch transaction fails,
+     * the valid orders are retried one by one so a single bad order cannot fail the rest.
+     *
+     * @param orders The orders to create.
+     * @return One result per order, in request order.
+     */
+    public List<ApiBatchOrderResultDTO> createOrders(List<ApiCreateOrderDTO> orders) {
+        Set<Integer> customerIds = new HashSet<>();
+        Set<Integer> restaurantIds = new HashSet<>();
+        for (ApiCreateOrderDTO order : orders) {
+            customerIds.add(order.getCustomerId());
+            restaurantIds.add(order.getRestaurantId());
+        }
+
+        // 1. Set-based validation: one query each for customers, restaurants and products
+        Map<Integer, String> customerAddresses = orderJdbcRepository.findCustomerAddresses(customerIds);
+        Map<Integer, String[]> restaurants = orderJdbcRepository.findRestaurantNamesAndAddresses(restaurantIds);
+        Map<Integer, Object[]> products = findProductsForOrders(orders);
+
+        ApiBatchOrderResultDTO[] results = new ApiBatchOrderResultDTO[orders.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            ApiCreateOrderDTO order = orders.get(i);
+            try {
+                if (!customerAddresses.containsKey(order.getCustomerId())) {
+                    throw new ResourceNotFoundException("Customer with id " + order.getCustomerId() + " not found");
+                }
+                if (!restaurants.containsKey(order.getRestaurantId())) {
+                    throw new ResourceNotFoundException("Restaurant with id " + order.getRestaurantId() + " not found");
+                }
+                validateProducts(order, products);
+                valid.add(i);
+            } catch (ResourceNotFoundException | ValidationException e) {
+                results[i] = failure(i, e);
+            }
+        }
+
+        // 2. Write every valid order in one transaction
+        if (!valid.isEmpty()) {
+            try {
+                List<ApiOrderDTO> created = transactionTemplate.execute(status ->
+                    writeOrders(valid, orders, customerAddresses, restaurants, products));
+                for (int i = 0; i < valid.size(); i++) {
+                    results[valid.get(i)] = ApiBatchOrderResultDTO.created(valid.get(i), created.get(i));
+                }
+            } catch (RuntimeException batchFailure) {
+                // 3. Isolate the failing orders by writing the valid ones individually
+                LOGGER.warn("Order batch of {} failed, retrying orders one by one: {}",
+                    valid.size(), batchFailure.getMessage());
+                for (int i : valid) {
+                    try {
+                        ApiOrderDTO created = transactionTemplate.execute(status -> createOrder(orders.get(i)));
+                        results[i] = ApiBatchOrderResultDTO.created(i, created);
+                    } catch (RuntimeException e) {
+                        results[i] = failure(i, e);
+                    }
                 }
             }
+        }
+        return Arrays.asList(results);
+    }
+
+    // A constraint the order's own data breaks (e.g. the same product twice) is the request's fault, anything else is not
+    private static ApiBatchOrderResultDTO failure(int index, RuntimeException e) {
+        String reason = e instanceof ResourceNotFoundException ? ApiBatchOrderResultDTO.NOT_FOUND
+            : e instanceof ValidationException || e instanceof InsufficientInventoryException
+                || e instanceof DataIntegrityViolationException
+                || e.getCause() instanceof DataIntegrityViolationException ? ApiBatchOrderResultDTO.INVALID
+            : ApiBatchOrderResultDTO.ERROR;
+        return ApiBatchOrderResultDTO.failed(index, reason, e.getMessage());
+    }
+
+    // Runs inside the batch transaction of createOrders
+    private List<ApiOrderDTO> writeOrders(List<Integer> valid, List<ApiCreateOrderDTO> orders,
+                                          Map<Integer, String> customerAddresses, Map<Integer, String[]> restaurants,
+                                          Map<Integer, Object[]> products) {
+        List<ApiOrderDTO> created = new ArrayList<>(valid.size());
+        List<long[]> orderRows = new ArrayList<>(valid.size());
+        for (int i : valid) {
+            ApiCreateOrderDTO order = orders.get(i);
+            String[] restaurant = restaurants.get(order.getRestaurantId());
+            ApiOrderDTO createdOrder = buildCreatedOrder(order,
+                customerAddresses.get(order.getCustomerId()), restaurant[0], restaurant[1], products);
+            created.add(createdOrder);
+            orderRows.add(new long[] { order.getCustomerId(), order.getRestaurantId(), createdOrder.getTotalCost() });
+        }
+        int[] orderIds = orderJdbcRepository.insertOrders(orderRows,
+            referenceDataRegistry.orderStatusId(PENDING_STATUS));
+
+        List<int[]> productOrderRows = new ArrayList<>();
+        List<Object[]> viewRows = new ArrayList<>(valid.size());
+        Map<Integer, Integer> ordersPerRestaurant = new HashMap<>();
+        for (int n = 0; n < created.size(); n++) {
+            ApiOrderDTO createdOrder = created.get(n);
+            createdOrder.setId(orderIds[n]);
+            productOrderRows.addAll(productOrderRows(createdOrder));
+            viewRows.add(toViewRow(createdOrder));
+            ordersPerRestaurant.merge(createdOrder.getRestaurantId(), 1, Integer::sum);
+        }
+        if (!productOrderRows.isEmpty()) {
+            orderJdbcRepository.insertProductOrders(productOrderRows);
+        }
+        orderJdbcRepository.insertOrderViews(viewRows);
+        ordersPerRestaurant.forEach((restaurantId, count) -> restaurantRepository.applyRatingDelta(restaurantId, 0, count));
+
+        AfterCommit.run(() -> ordersCreated(created));
+        return created;
+    }
+
+    // Caches and publishes orders once their transaction has committed
+    private void ordersCreated(List<ApiOrderDTO> created) {
+        int pendingStatusId = referenceDataRegistry.orderStatusId(PENDING_STATUS);
+        for (ApiOrderDTO order : created) {
+            orderCache.put(order.getId(), order);
+            restaurantIndex.applyRatingDelta(order.getRestaurantId(), 0, 1);
+            changeVersionTracker.bumpOrderOwners(order.getCustomerId(), order.getRestaurantId(), order.getCourierId());
+            publishEvent(new ApiOrderEventDTO(ApiOrderEventDTO.CREATED, order.getId(),
+                order.getCustomerId(), order.getRestaurantId(), order.getCourierId(), order.getStatus(),
+                System.currentTimeMillis()), OrderEventRecord.CREATED, pendingStatusId);
+        }
+        changeVersionTracker.bump(ChangeVersionTracker.RESTAURANTS);
+    }
 
-            // 4. Create the order using repository methods
-            orderRepository.createOrder(
-                createOrderDTO.getCustomerId(),
-                createOrderDTO.getRestaurantId(),
-                1 // Default status: pending
-            );
-            
-            // 5. Get the created order ID
-            int newOrderId = orderRepository.getLastInsertedId();
-
-            // 6. Add products to the order
-            for (ApiCreateOrderDTO.ProductOrder productOrder : createOrderDTO.getProducts()) {
-                productOrderRepository.createProductOrder(
-                    newOrderId,
-                    productOrder.getId(),
-                    productOrder.getQuantity()
-                );
+    // Sends a committed change to the live event streams and appends it to the event log
+    private void publishEvent(ApiOrderEventDTO event, byte type, int statusId) {
+        orderEventDispatcher.publish(event);
+        orderEventLog.append(new OrderEventRecord(-1, event.getTimestamp(), type, event.getOrderId(),
+            event.getCustomerId(), event.getRestaurantId(), event.getCourierId(), statusId));
+    }
+
+    private Map<Integer, Object[]> findProductsForOrders(List<ApiCreateOrderDTO> orders) {
+        List<Integer> productIds = orders.stream()
+            .flatMap(order -> linesOf(order).stream())
+            .map(ApiCreateOrderDTO.ProductOrder::getId)
+            .distinct()
+            .collect(Collectors.toList());
+        Map<Integer, Object[]> products = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Object[] product : orderJdbcRepository.findProductsForOrder(productIds)) {
+                products.put((Integer) product[0], product);
             }
+        }
+        return products;
+    }
 
-            // 7. Get the complete order details and return as ApiOrderDTO
-            List<Object[]> orderData = orderRepository.findOrdersWithDetailsByOrderId(newOrderId);
-            if (orderData.isEmpty()) {
-                throw new RuntimeException("Failed to retrieve created order");
+    private static void validateProducts(ApiCreateOrderDTO order, Map<Integer, Object[]> products) {
+        for (ApiCreateOrderDTO.ProductOrder line : linesOf(order)) {
+            Object[] product = products.get(line.getId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product with id " + line.getId() + " not found");
+            }
+            if ((Integer) product[1] != order.getRestaurantId()) {
+                throw new ValidationException("Product with id " + line.getId()
+                    + " does not belong to restaurant with id " + order.getRestaurantId());
             }
+        }
+    }
 
-            return convertToApiOrderDTO(orderData.get(0));
+    private static List<ApiCreateOrderDTO.ProductOrder> linesOf(ApiCreateOrderDTO order) {
+        return order.getProducts() != null ? order.getProducts() : List.of();
+    }
 
-        } catch (ResourceNotFoundException | InsufficientInventoryException e) {
-            throw e; // Re-throw to be handled by GlobalExceptionHandler
-        } catch (Exception e) {
-            throw new RuntimeException("Error creating order: " + e.getMessage());
+    // The product_orders rows of an order, with the unit costs it was priced at
+    private static List<int[]> productOrderRows(ApiOrderDTO order) {
+        return order.getProducts().stream()
+            .map(line -> new int[] { order.getId(), line.getProductId(), line.getProductQuantity(), line.getUnitCost() })
+            .collect(Collectors.toList());
+    }
+
+    // The new order as it will be written, without its id until the insert has generated it
+    private static ApiOrderDTO buildCreatedOrder(ApiCreateOrderDTO order, String customerAddress,
+                                                 String restaurantName, String restaurantAddress,
+                                                 Map<Integer, Object[]> products) {
+        List<ApiCreateOrderDTO.ProductOrder> lines = linesOf(order);
+        List<ApiProductForOrderApiDTO> productLines = new ArrayList<>(lines.size());
+        long totalCost = 0;
+        for (ApiCreateOrderDTO.ProductOrder line : lines) {
+            int unitCost = (Integer) products.get(line.getId())[2];
+            productLines.add(new ApiProductForOrderApiDTO(
+                line.getId(), line.getQuantity(), unitCost, line.getQuantity() * unitCost));
+            totalCost += (long) line.getQuantity() * unitCost;
+        }
+        return new ApiOrderDTO(
+            0, order.getCustomerId(), customerAddress,
+            order.getRestaurantId(), restaurantName, restaurantAddress,
+            null, PENDING_STATUS, productLines, totalCost
+        );
+    }
+
+    // Inverse of convertToApiOrderDTO: the order_views columns of an order
+    private static Object[] toViewRow(ApiOrderDTO order) {
+        try {
+            return new Object[] {
+                order.getId(), order.getCustomerId(), order.getRestaurantId(), order.getCourierId(),
+                order.getCustomerAddress(), order.getRestaurantName(), order.getRestaurantAddress(),
+                order.getStatus(), PRODUCT_LINES_WRITER.writeValueAsString(order.getProducts()), order.getTotalCost()
+            };
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize product lines: " + e.getMessage());
         }
     }
 
     /**
-     * Updates order status and returns the new status
+     * Updates order status and returns the new status.
+     * The change is a compare-and-set on the current status, following STATUS_PREDECESSORS, so the order
+     * is not overwritten when another request changed it in between. An order already in the status is
+     * returned as is, without writing anything or publishing an event.
+     * @throws ResourceNotFoundException if the order does not exist
+     * @throws ConflictException if the order's current status does not allow the transition
      */
     @Transactional
     public ApiOrderStatusDTO updateOrderStatus(int orderId, ApiOrderStatusDTO statusDTO) {
-        // 1. Check if order exists
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
-        if (orderOpt.isEmpty()) {
+        ApiOrderStatusResultDTO result = updateOrderStatuses(List.of(orderId), statusDTO.getStatus()).get(0);
+        switch (result.getResult()) {
+            case ApiOrderStatusResultDTO.NOT_FOUND:
+                throw new ResourceNotFoundException("Order with id " + orderId + " not found");
+            case ApiOrderStatusResultDTO.CONFLICT:
+                throw new ConflictException("Order with id " + orderId + " cannot move from "
+                    + result.getStatus() + " to " + normalizeStatus(statusDTO.getStatus()));
+            default:
+                return new ApiOrderStatusDTO(result.getStatus());
+        }
+    }
+
+    /**
+     * Moves several orders to one status. The only write is the conditional UPDATE, which changes an order only
+     * when its current status is an allowed predecessor of the new one (see STATUS_PREDECESSORS), so nothing is
+     * read or locked beforehand. One plain SELECT in the same transaction then tells where each order stands:
+     * orders the UPDATE changed are applied, orders already in the requested status are unchanged, orders in any
+     * other status are a conflict, and orders that do not exist are not_found. Only the applied orders are projected
+     * and published, and when the new status is delivered or cancelled their couriers are released to take other orders.
+     *
+     * @param orderIds The orders to update; duplicates are reported once.
+     * @param status The new status name.
+     * @return One result per distinct order id, in request order.
+     */
+    @Transactional
+    public List<ApiOrderStatusResultDTO> updateOrderStatuses(List<Integer> orderIds, String status) {
+        String statusName = normalizeStatus(status);
+        OrderStatus target = referenceDataRegistry.findOrderStatusByName(statusName)
+            .orElseThrow(() -> new InvalidStatusTransitionException("Invalid status: " + status));
+        Set<Integer> ids = new LinkedHashSet<>(orderIds);
+
+        // 1. Apply the transition to the orders that allow it
+        List<Integer> sortedIds = new ArrayList<>(ids);
+        Collections.sort(sortedIds);
+        int[] updated = orderJdbcRepository.updateOrderStatuses(sortedIds, target.getId(), predecessorIds(target.getName()));
+        Set<Integer> appliedIds = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                appliedIds.add(sortedIds.get(i));
+            }
+        }
+
+        // 2. Read where each order stands now
+        Map<Integer, Object[]> current = new HashMap<>();
+        for (Object[] row : orderJdbcRepository.findOrderStatuses(ids)) {
+            current.put((Integer) row[0], row);
+        }
+        List<ApiOrderStatusResultDTO> results = new ArrayList<>(ids.size());
+        List<Object[]> applied = new ArrayList<>();
+        for (int orderId : ids) {
+            Object[] row = current.get(orderId);
+            if (row == null) {
+                results.add(new ApiOrderStatusResultDTO(orderId, ApiOrderStatusResultDTO.NOT_FOUND, null));
+            } else if ((Integer) row[1] != target.getId()) {
+                String currentStatus = referenceDataRegistry.findOrderStatusById((Integer) row[1])
+                    .map(OrderStatus::getName).orElse(null);
+                results.add(new ApiOrderStatusResultDTO(orderId, ApiOrderStatusResultDTO.CONFLICT, currentStatus));
+            } else if (appliedIds.contains(orderId)) {
+                results.add(new ApiOrderStatusResultDTO(orderId, ApiOrderStatusResultDTO.APPLIED, target.getName()));
+                applied.add(row);
+            } else {
+                results.add(new ApiOrderStatusResultDTO(orderId, ApiOrderStatusResultDTO.UNCHANGED, target.getName()));
+            }
+        }
+        LOGGER.debug("Status {} applied to {} of {} orders", target.getName(), applied.size(), ids.size());
+        if (applied.isEmpty()) {
+            return results;
+        }
+        List<Integer> appliedInOrder = applied.stream().map(row -> (Integer) row[0]).collect(Collectors.toList());
+
+        // 3. Keep the read model and caches in line
+        orderJdbcRepository.updateOrderViewStatuses(appliedInOrder, target.getName());
+        AfterCommit.run(() -> {
+            for (Object[] row : applied) {
+                orderCache.invalidate((Integer) row[0]);
+                changeVersionTracker.bumpOrderOwners((Integer) row[2], (Integer) row[3], (Integer) row[4]);
+                publishEvent(new ApiOrderEventDTO(ApiOrderEventDTO.STATUS, (Integer) row[0],
+                    (Integer) row[2], (Integer) row[3], (Integer) row[4], target.getName(), System.currentTimeMillis()),
+                    OrderEventRecord.STATUS_CHANGED, target.getId());
+            }
+        });
+
+        // 4. Couriers whose order is finished can take the next one
+        if (referenceDataRegistry.isTerminalOrderStatus(target.getId())) {
+            List<Integer> courierIds = applied.stream().map(row -> (Integer) row[4])
+                .filter(Objects::nonNull).distinct().collect(Collectors.toList());
+            courierService.releaseCouriersOfFinishedOrders(courierIds);
+        }
+        return results;
+    }
+
+    // Accepts both "in progress" and the "in_progress" spelling of ApiOrderStatusDTO
+    private static String normalizeStatus(String status) {
+        if (status == null) {
+            throw new InvalidStatusTransitionException("Status is required");
+        }
+        return status.trim().toLowerCase().replace('_', ' ');
+    }
+
+    private List<Integer> predecessorIds(String statusName) {
+        return STATUS_PREDECESSORS.getOrDefault(statusName, Set.of()).stream()
+            .map(referenceDataRegistry::findOrderStatusByName)
+            .flatMap(Optional::stream)
+            .map(OrderStatus::getId)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Gives pending orders the couriers the dispatcher matched them with, with one batched conditional
+     * UPDATE: an order that was meanwhile assigned, cancelled or moved on keeps its state. One SELECT
+     * afterwards tells which assignments were applied.
+     *
+     * @param assignments One [order_id, courier_id] row per order.
+     * @return The applied assignments, as [order_id, courier_id] rows.
+     */
+    @Transactional
+    public List<int[]> assignCouriers(List<int[]> assignments) {
+        if (assignments.isEmpty()) {
+            return List.of();
+        }
+        int pendingStatusId = referenceDataRegistry.orderStatusId(PENDING_STATUS);
+        orderJdbcRepository.assignCouriers(assignments, pendingStatusId);
+
+        Map<Integer, Integer> couriersByOrder = new HashMap<>();
+        for (int[] assignment : assignments) {
+            couriersByOrder.put(assignment[0], assignment[1]);
+        }
+        List<int[]> applied = new ArrayList<>(assignments.size());
+        List<Object[]> appliedRows = new ArrayList<>(assignments.size());
+        for (Object[] row : orderJdbcRepository.findOrderStatuses(couriersByOrder.keySet())) {
+            Integer courierId = couriersByOrder.get((Integer) row[0]);
+            if (courierId.equals(row[4])) {
+                applied.add(new int[] { (Integer) row[0], courierId });
+                appliedRows.add(row);
+            }
+        }
+        if (!applied.isEmpty()) {
+            orderJdbcRepository.updateOrderViewCouriers(applied);
+        }
+        AfterCommit.run(() -> {
+            for (Object[] row : appliedRows) {
+                orderCache.invalidate((Integer) row[0]);
+                changeVersionTracker.bumpOrderOwners((Integer) row[2], (Integer) row[3], (Integer) row[4]);
+                publishEvent(new ApiOrderEventDTO(ApiOrderEventDTO.COURIER_ASSIGNED, (Integer) row[0],
+                    (Integer) row[2], (Integer) row[3], (Integer) row[4], PENDING_STATUS, System.currentTimeMillis()),
+                    OrderEventRecord.COURIER_ASSIGNED, (Integer) row[1]);
+            }
+        });
+        return applied;
+    }
+
+    /**
+     * Gets what happened to an order, oldest event first, from the in-memory projection of the order event log.
+     * Orders created before the log was enabled have an empty history, as do finished orders the projection evicted.
+     * @throws ResourceNotFoundException if the order does not exist
+     */
+    public List<ApiOrderHistoryEntryDTO> getOrderHistory(int orderId) {
+        List<OrderEventRecord> events = orderHistoryProjection.getHistory(orderId);
+        if (events.isEmpty()) {
+            getOrderById(orderId);
+        }
+        List<ApiOrderHistoryEntryDTO> history = new ArrayList<>(events.size());
+        for (OrderEventRecord event : events) {
+            String type = event.getType() == OrderEventRecord.CREATED ? ApiOrderHistoryEntryDTO.CREATED
+                : event.getType() == OrderEventRecord.STATUS_CHANGED ? ApiOrderHistoryEntryDTO.STATUS
+                : ApiOrderHistoryEntryDTO.COURIER_ASSIGNED;
+            String status = referenceDataRegistry.findOrderStatusById(event.getStatusId()).map(OrderStatus::getName).orElse(null);
+            history.add(new ApiOrderHistoryEntryDTO(event.getSequence(), type, status, event.getCourierId(), event.getTimestamp()));
+        }
+        return history;
+    }
+
+    /**
+     * Rates the restaurant of an order and updates the restaurant rating aggregates accordingly
+     * @param rating The new rating, from 1 to 5
+     * @return The rating that was stored
+     */
+    @Transactional
+    public ApiRestaurantRatingDTO rateOrder(int orderId, int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+
+        // The order stays locked until commit: a concurrent rating reads the rating stored here, not the one before it
+        List<Object[]> current = orderRepository.findRestaurantRatingByOrderIdForUpdate(orderId);
+        if (current.isEmpty()) {
             throw new ResourceNotFoundException("Order with id " + orderId + " not found");
         }
-        
-        Order order = orderOpt.get();
-        
-        // 2. REMOVE THIS SECTION - No status transition validation
-        // String currentStatus = order.getOrder_status().getName();
-        // if (!isValidStatusTransition(currentStatus, newStatus)) {
-        //     throw new InvalidStatusTransitionException("Cannot transition from " + currentStatus + " to " + newStatus);
-        // }
-        
-        // 3. Allow any status transition
-        String newStatus = statusDTO.getStatus().toLowerCase();
-        
-        // 4. Find the status entity
-        Optional<OrderStatus> newStatusEntity = orderStatusRepository.findByName(newStatus);
-        if (newStatusEntity.isEmpty()) {
-            throw new InvalidStatusTransitionException("Invalid status: " + newStatus);
+        int restaurantId = ((Number) current.get(0)[0]).intValue();
+        int previousRating = current.get(0)[1] != null ? ((Number) current.get(0)[1]).intValue() : 0;
+
+        orderRepository.updateRestaurantRating(orderId, rating);
+        restaurantRepository.applyRatingDelta(restaurantId, rating - previousRating, 0);
+        AfterCommit.run(() -> {
+            restaurantIndex.applyRatingDelta(restaurantId, rating - previousRating, 0);
+            changeVersionTracker.bump(ChangeVersionTracker.RESTAURANTS);
+        });
+
+        ApiRestaurantRatingDTO result = new ApiRestaurantRatingDTO();
+        result.setRestaurant_rating(rating);
+        return result;
+    }
+
+    /**
+     * Gets a single order with complete details, from the order cache when possible
+     * @throws ResourceNotFoundException if the order does not exist
+     */
+    public ApiOrderDTO getOrderById(int orderId) {
+        ApiOrderDTO cached = orderCache.get(orderId);
+        if (cached != null) {
+            return cached;
         }
-        
-        // 5. Update the order
-        order.setOrder_status(newStatusEntity.get());
-        orderRepository.save(order);
-        
-        // 6. Return just the status
-        return new ApiOrderStatusDTO(newStatus);
+
+        long stamp = orderCache.stamp(orderId);
+        List<Object[]> orderData = orderRepository.findOrdersWithDetailsByOrderId(orderId);
+        if (orderData.isEmpty()) {
+            throw new ResourceNotFoundException("Order with id " + orderId + " not found");
+        }
+        ApiOrderDTO order = convertToApiOrderDTO(orderData.get(0));
+        orderCache.putIfNotInvalidatedSince(orderId, order, stamp);
+        return order;
     }
-    
+
+    /**
+     * Returns the hit, miss and eviction counters of the order cache
+     */
+    public ApiCacheStatsDTO getOrderCacheStats() {
+        return orderCache.stats();
+    }
+
     /**
-     * Gets orders by user type and ID with complete details
+     * Gets one keyset page of orders by user type and ID, ordered by order id.
+     * @param afterOrderId Only orders with a greater id are returned (0 for the first page)
+     * @param limit Maximum number of orders in the page
+     * @return The page of orders and the cursor of the next page, which is null on the last page
      */
-    public List<ApiOrderDTO> getOrdersByUserTypeAndId(String userType, int userId) {
+    public ApiOrderPageDTO getOrdersPageByUserTypeAndId(String userType, int userId, int afterOrderId, int limit) {
+        // Fetch one extra row to know whether another page follows without a COUNT query
         List<Object[]> orderData;
-        
+
         switch (userType.toLowerCase()) {
             case "customer":
-                orderData = orderRepository.findOrdersWithDetailsByCustomerId(userId);
+                orderData = orderRepository.findOrdersWithDetailsByCustomerIdAfter(userId, afterOrderId, limit + 1);
                 break;
             case "restaurant":
-                orderData = orderRepository.findOrdersWithDetailsByRestaurantId(userId);
+                orderData = orderRepository.findOrdersWithDetailsByRestaurantIdAfter(userId, afterOrderId, limit + 1);
                 break;
             case "courier":
-                orderData = orderRepository.findOrdersWithDetailsByCourierId(userId);
+                orderData = orderRepository.findOrdersWithDetailsByCourierIdAfter(userId, afterOrderId, limit + 1);
                 break;
             default:
                 throw new IllegalArgumentException("Invalid user type: " + userType);
         }
-        
-        return orderData.stream()
-            .map(this::convertToApiOrderDTO)
-            .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (orderData.size() > limit) {
+            orderData = orderData.subList(0, limit);
+            nextCursor = OrderCursor.encode(((Number) orderData.get(limit - 1)[0]).intValue());
+        }
+
+        return new ApiOrderPageDTO(convertToApiOrderDTOs(orderData), nextCursor);
+    }
+
+    /**
+     * Streams every order of a user to the given sink, in order id order, without holding the whole
+     * result in memory. Rows are read through a forward-only cursor and written as soon as they are read.
+     */
+    public void streamOrdersByUserTypeAndId(String userType, int userId, Consumer<ApiOrderDTO> sink) {
+        orderJdbcRepository.streamOrdersWithDetails(userType, userId, row -> sink.accept(convertToApiOrderDTO(row)));
     }
 
     /**
-     * Helper method to convert Object[] result to ApiOrderDTO
+     * Converts a list of order_views rows to ApiOrderDTOs
+     */
+    private List<ApiOrderDTO> convertToApiOrderDTOs(List<Object[]> orderRows) {
+        List<ApiOrderDTO> orders = new ArrayList<>(orderRows.size());
+        for (Object[] row : orderRows) {
+            orders.add(convertToApiOrderDTO(row));
+        }
+        return orders;
+    }
+
+    /**
+     * Helper method to convert an order_views row to ApiOrderDTO.
+     * The product lines and total cost are stored pre-computed, so no further query is needed.
      */
     private ApiOrderDTO convertToApiOrderDTO(Object[] row) {
         int orderId = ((Number) row[0]).intValue();
@@ -199,22 +691,8 @@ public class OrderService {
         String restaurantName = (String) row[5];
         String restaurantAddress = (String) row[6];
         String status = (String) row[7];
-        
-        // Get products for this order
-        List<Object[]> productData = productOrderRepository.findProductsByOrderId(orderId);
-        List<ApiProductForOrderApiDTO> products = productData.stream()
-            .map(productRow -> new ApiProductForOrderApiDTO(
-                ((Number) productRow[0]).intValue(), // product_id
-                ((Number) productRow[2]).intValue(), // product_quantity  
-                ((Number) productRow[3]).intValue(), // unit_cost
-                ((Number) productRow[4]).intValue()  // total_cost
-            ))
-            .collect(Collectors.toList());
-        
-        // Calculate total cost
-        long totalCost = products.stream()
-            .mapToLong(ApiProductForOrderApiDTO::getTotalCost)
-            .sum();
+        List<ApiProductForOrderApiDTO> products = readProductLines((String) row[8]);
+        long totalCost = ((Number) row[9]).longValue();
         
         return new ApiOrderDTO(
             orderId, customerId, customerAddress,
@@ -222,6 +700,12 @@ public class OrderService {
             courierId, status, products, totalCost
         );
     }
-    
 
+    private static List<ApiProductForOrderApiDTO> readProductLines(String productsJson) {
+        try {
+            return PRODUCT_LINES_READER.readValue(productsJson);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid product lines in order view: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
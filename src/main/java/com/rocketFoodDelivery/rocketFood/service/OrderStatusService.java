@@ -1,7 +1,7 @@
 package com.rocketFoodDelivery.rocketFood.service;
 
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
 import com.rocketFoodDelivery.rocketFood.models.OrderStatus;
-import com.rocketFoodDelivery.rocketFood.repository.OrderStatusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -11,17 +11,17 @@ import java.util.Optional;
 
 @Service
 public class OrderStatusService {
-    private final OrderStatusRepository orderStatusRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @Autowired
-    public OrderStatusService(OrderStatusRepository orderStatusRepository) {
-        this.orderStatusRepository = orderStatusRepository;
+    public OrderStatusService(ReferenceDataRegistry referenceDataRegistry) {
+        this.referenceDataRegistry = referenceDataRegistry;
     }
     public List<OrderStatus> getAllOrderStatuses() {
-        return orderStatusRepository.findAll();
+        return referenceDataRegistry.getOrderStatuses();
     }
     public Optional<OrderStatus> findById(int id) {
-        return orderStatusRepository.findById(id);
+        return referenceDataRegistry.findOrderStatusById(id);
     }
 
 }
\ No newline at end of file
@@ -1,11 +1,28 @@
 package com.rocketFoodDelivery.rocketFood.service;
 
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.MenuCache;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiBulkImportDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCacheStatsDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiProductImportDTO;
+import com.rocketFoodDelivery.rocketFood.exception.BadRequestException;
+import com.rocketFoodDelivery.rocketFood.exception.ResourceNotFoundException;
+import com.rocketFoodDelivery.rocketFood.repository.ProductJdbcRepository;
+import com.rocketFoodDelivery.rocketFood.repository.RestaurantRepository;
 import com.rocketFoodDelivery.rocketFood.models.Product;
 import com.rocketFoodDelivery.rocketFood.repository.ProductRepository;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiProductDTO;
+import com.rocketFoodDelivery.rocketFood.util.AfterCommit;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.ArrayList;
@@ -15,12 +32,26 @@ import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
+    static final int IMPORT_BATCH_SIZE = 1000;
+    private static final ObjectReader IMPORT_READER = new ObjectMapper().readerFor(ApiProductImportDTO.class);
     
     private ProductRepository productRepository;
+    private ProductJdbcRepository productJdbcRepository;
+    private RestaurantRepository restaurantRepository;
+    private ChangeVersionTracker changeVersionTracker;
+    private MenuCache menuCache;
+    private SearchService searchService;
     
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductJdbcRepository productJdbcRepository,
+                          RestaurantRepository restaurantRepository, ChangeVersionTracker changeVersionTracker,
+                          MenuCache menuCache, SearchService searchService) {
         this.productRepository = productRepository;
+        this.productJdbcRepository = productJdbcRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.changeVersionTracker = changeVersionTracker;
+        this.menuCache = menuCache;
+        this.searchService = searchService;
     }
     
     /**
@@ -29,10 +60,36 @@ public class ProductService {
      * @return List of ApiProductDTO for the restaurant
      */
     public List<ApiProductDTO> findProductsByRestaurantId(int restaurantId) {
-        List<Product> products = productRepository.findByRestaurantId(restaurantId);
-        return products.stream()
+        return getMenu(restaurantId).getProducts();
+    }
+
+    /**
+     * Finds the menu of a restaurant together with its version, from the menu cache when possible
+     * @param restaurantId The ID of the restaurant
+     * @return The products of the restaurant and the menu version they were read at
+     */
+    public MenuCache.Menu getMenu(int restaurantId) {
+        MenuCache.Menu cached = menuCache.get(restaurantId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Stamp, then version, then data: see MenuCache
+        long stamp = menuCache.stamp(restaurantId);
+        long version = changeVersionTracker.current(ChangeVersionTracker.menuOf(restaurantId));
+        List<ApiProductDTO> products = productRepository.findByRestaurantId(restaurantId).stream()
             .map(this::convertToApiDTO)
             .collect(Collectors.toList());
+        MenuCache.Menu menu = new MenuCache.Menu(version, products);
+        menuCache.putIfNotInvalidatedSince(restaurantId, menu, stamp);
+        return menu;
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the menu cache
+     */
+    public ApiCacheStatsDTO getMenuCacheStats() {
+        return menuCache.stats();
     }
     
     /**
@@ -42,16 +99,80 @@ public class ProductService {
      * @param cost Product cost
      * @param restaurantId Restaurant ID
      */
+    @Transactional
     public void addProduct(String name, String description, double cost, int restaurantId) {
         productRepository.addProduct(name, description, cost, restaurantId);
+        int productId = productRepository.getLastInsertedId();
+        AfterCommit.run(() -> {
+            menuChanged(restaurantId);
+            searchService.productAdded(productId, restaurantId, name, description, (int) Math.round(cost));
+        });
     }
     
+    /**
+     * Adds every product of a JSON array to a restaurant, in one transaction.
+     * The array is parsed one element at a time and written in JDBC batches of IMPORT_BATCH_SIZE,
+     * so memory use does not depend on the size of the menu.
+     * @param restaurantId Restaurant ID
+     * @param json A JSON array of {name, description, cost} objects
+     * @return The number of products imported
+     */
+    @Transactional
+    public ApiBulkImportDTO importProducts(int restaurantId, InputStream json) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new ResourceNotFoundException("Restaurant with id " + restaurantId + " not found");
+        }
+
+        int imported = 0;
+        List<ApiProductImportDTO> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        try (MappingIterator<ApiProductImportDTO> products = IMPORT_READER.readValues(json)) {
+            while (products.hasNext()) {
+                ApiProductImportDTO product = products.next();
+                if (product.getName() == null || product.getName().isBlank()
+                        || product.getCost() == null || product.getCost() < 0) {
+                    throw new BadRequestException("Invalid product at index " + (imported + batch.size()));
+                }
+                batch.add(product);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    productJdbcRepository.insertProducts(restaurantId, batch);
+                    imported += batch.size();
+                    batch.clear();
+                }
+            }
+        } catch (IOException | RuntimeJsonMappingException e) {
+            throw new BadRequestException("Invalid products JSON: " + e.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            productJdbcRepository.insertProducts(restaurantId, batch);
+            imported += batch.size();
+        }
+
+        AfterCommit.run(() -> {
+            menuChanged(restaurantId);
+            searchService.reindexProductsOfRestaurant(restaurantId);
+        });
+        return new ApiBulkImportDTO(restaurantId, imported);
+    }
+
     /**
      * Deletes all products for a specific restaurant
      * @param restaurantId The ID of the restaurant
      */
     public void deleteProductsByRestaurantId(int restaurantId) {
         productRepository.deleteProductsByRestaurantId(restaurantId);
+        AfterCommit.run(() -> {
+            menuChanged(restaurantId);
+            searchService.productsOfRestaurantDeleted(restaurantId);
+        });
+    }
+
+    /**
+     * Bumps the menu version, then drops the cached menu (see MenuCache for why in this order)
+     * @param restaurantId The ID of the restaurant whose menu changed
+     */
+    public void menuChanged(int restaurantId) {
+        changeVersionTracker.bump(ChangeVersionTracker.menuOf(restaurantId));
+        menuCache.invalidate(restaurantId);
     }
     
     /**
@@ -1,7 +1,12 @@
 package com.rocketFoodDelivery.rocketFood.service;
 
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.OrderCache;
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateRestaurantDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiIndexCheckDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiRestaurantDTO;
+import com.rocketFoodDelivery.rocketFood.index.RestaurantIndex;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiAddressDTO;  // Add this import
 import com.rocketFoodDelivery.rocketFood.models.Restaurant;
 import com.rocketFoodDelivery.rocketFood.repository.*;
@@ -16,6 +21,7 @@ import com.rocketFoodDelivery.rocketFood.repository.ProductOrderRepository;
 import com.rocketFoodDelivery.rocketFood.repository.UserRepository;
 import org.springframework.data.repository.query.Param;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiDeleteRestaurantResponseDTO;
+import com.rocketFoodDelivery.rocketFood.util.AfterCommit;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -23,6 +29,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -34,6 +41,14 @@ public class RestaurantService {
     private final UserRepository userRepository;
     private final AddressService addressService;
     private final AddressRepository addressRepository;  
+    private final OrderViewRepository orderViewRepository;
+    private final OrderCache orderCache;
+    private final ChangeVersionTracker changeVersionTracker;
+    private final RestaurantIndex restaurantIndex;
+    private final ProductService productService;
+    private final SearchService searchService;
+    private final CourierService courierService;
+    private final ReferenceDataRegistry referenceDataRegistry;
 
     @Autowired
     public RestaurantService(
@@ -43,7 +58,15 @@ public class RestaurantService {
         ProductOrderRepository productOrderRepository,
         UserRepository userRepository,
         AddressService addressService,
-        AddressRepository addressRepository   
+        AddressRepository addressRepository,
+        OrderViewRepository orderViewRepository,
+        OrderCache orderCache,
+        ChangeVersionTracker changeVersionTracker,
+        RestaurantIndex restaurantIndex,
+        ProductService productService,
+        SearchService searchService,
+        CourierService courierService,
+        ReferenceDataRegistry referenceDataRegistry
         ) {
         this.restaurantRepository = restaurantRepository;
         this.productRepository = productRepository;
@@ -52,6 +75,14 @@ public class RestaurantService {
         this.userRepository = userRepository;
         this.addressService = addressService;
         this.addressRepository = addressRepository;  
+        this.orderViewRepository = orderViewRepository;
+        this.orderCache = orderCache;
+        this.changeVersionTracker = changeVersionTracker;
+        this.restaurantIndex = restaurantIndex;
+        this.productService = productService;
+        this.searchService = searchService;
+        this.courierService = courierService;
+        this.referenceDataRegistry = referenceDataRegistry;
     }
 
     public List<Restaurant> findAllRestaurants() {
@@ -72,10 +103,10 @@ public class RestaurantService {
 
         if (!restaurant.isEmpty()) {
             Object[] row = restaurant.get(0);
-            int restaurantId = (int) row[0];
+            int restaurantId = ((Number) row[0]).intValue();
             String name = (String) row[1];
-            int priceRange = (int) row[2];
-            double rating = (row[3] != null) ? ((BigDecimal) row[3]).setScale(1, RoundingMode.HALF_UP).doubleValue() : 0.0;
+            int priceRange = ((Number) row[2]).intValue();
+            double rating = (row[3] != null) ? new BigDecimal(row[3].toString()).setScale(1, RoundingMode.HALF_UP).doubleValue() : 0.0;
             int roundedRating = (int) Math.ceil(rating);
             ApiRestaurantDTO restaurantDTO = new ApiRestaurantDTO(restaurantId, name, priceRange, roundedRating);
             System.out.println("Restaurant found: " + restaurantDTO.getName());
@@ -92,8 +123,13 @@ public class RestaurantService {
      * @param priceRange The price range for filtering the restaurants.
      * @return A list of ApiRestaurantDTO objects representing the selected restaurants.
      *         Each object contains the restaurant's ID, name, price range, and a rounded-up average rating.
+     *         Answered from the RestaurantIndex once it is built, from the database before that.
      */
     public List<ApiRestaurantDTO> findRestaurantsByRatingAndPriceRange(Integer rating, Integer priceRange) {
+        if (restaurantIndex.isReady()) {
+            return restaurantIndex.find(rating, priceRange);
+        }
+
         List<Object[]> restaurants = restaurantRepository.findRestaurantsByRatingAndPriceRange(rating, priceRange);
         List<ApiRestaurantDTO> restaurantDtos = new ArrayList<>();
 
@@ -118,8 +154,74 @@ public class RestaurantService {
         return restaurantDtos;
     }
 
+    /**
+     * Finds (GET) the best rated restaurants of a price range.
+     *
+     * @param priceRange The price range of the restaurants.
+     * @param limit      The maximum number of restaurants to return.
+     * @return The restaurants ordered by average rating, best first, then by number of orders.
+     */
+    public List<ApiRestaurantDTO> findTopRatedRestaurants(int priceRange, int limit) {
+        if (!restaurantIndex.isReady()) {
+            rebuildRestaurantIndex();
+        }
+        return restaurantIndex.findTopRated(priceRange, limit);
+    }
+
+    /**
+     * Loads every restaurant into the RestaurantIndex, replacing its content.
+     *
+     * @return The number of restaurants indexed.
+     */
+    public int rebuildRestaurantIndex() {
+        List<RestaurantIndex.IndexedRestaurant> snapshot = readRestaurantIndexSnapshot();
+        restaurantIndex.rebuild(snapshot);
+        return snapshot.size();
+    }
+
+    /**
+     * Compares the RestaurantIndex with the restaurants table.
+     *
+     * @param repair Whether to rebuild the index when it differs from the database.
+     * @return The result of the comparison, made before any repair.
+     */
+    public ApiIndexCheckDTO checkRestaurantIndex(boolean repair) {
+        List<RestaurantIndex.IndexedRestaurant> snapshot = readRestaurantIndexSnapshot();
+        List<String> mismatches = restaurantIndex.findMismatches(snapshot);
+        boolean repaired = repair && !mismatches.isEmpty();
+        if (repaired) {
+            restaurantIndex.rebuild(snapshot);
+        }
+        return new ApiIndexCheckDTO(mismatches.isEmpty(), snapshot.size(), mismatches, repaired);
+    }
+
+    private List<RestaurantIndex.IndexedRestaurant> readRestaurantIndexSnapshot() {
+        List<RestaurantIndex.IndexedRestaurant> snapshot = new ArrayList<>();
+        for (Object[] row : restaurantRepository.findRestaurantIndexSnapshot()) {
+            snapshot.add(new RestaurantIndex.IndexedRestaurant(
+                ((Number) row[0]).intValue(),
+                (String) row[1],
+                ((Number) row[2]).intValue(),
+                ((Number) row[3]).longValue(),
+                ((Number) row[4]).intValue()));
+        }
+        return snapshot;
+    }
+
     // TODO
 
+    /**
+     * Recomputes the rating aggregates of every restaurant from the orders table.
+     *
+     * @return The number of restaurants updated.
+     */
+    @Transactional
+    public int backfillRatingAggregates() {
+        int updated = restaurantRepository.backfillRatingAggregates();
+        AfterCommit.run(() -> changeVersionTracker.bump(ChangeVersionTracker.RESTAURANTS));
+        return updated;
+    }
+
     /**
      * Creates(POST) a new restaurant and returns its information.
      *
@@ -160,6 +262,11 @@ public class RestaurantService {
 
             // 4. Get the last inserted ID
             int newRestaurantId = restaurantRepository.getLastInsertedId();
+            AfterCommit.run(() -> {
+                restaurantIndex.upsert(newRestaurantId, restaurant.getName(), restaurant.getPriceRange());
+                searchService.restaurantSaved(newRestaurantId, restaurant.getName());
+                changeVersionTracker.bump(ChangeVersionTracker.RESTAURANTS);
+            });
 
             // 5. Return the created restaurant data with address ID included
             ApiAddressDTO returnAddress = new ApiAddressDTO(
@@ -224,6 +331,14 @@ public class RestaurantService {
                 updatedRestaurantDTO.getPriceRange(),
                 updatedRestaurantDTO.getPhone()
             );
+            orderViewRepository.updateOrderViewRestaurantName(id, updatedRestaurantDTO.getName());
+            AfterCommit.run(() -> {
+                restaurantIndex.upsert(id, updatedRestaurantDTO.getName(), updatedRestaurantDTO.getPriceRange());
+                searchService.restaurantSaved(id, updatedRestaurantDTO.getName());
+                orderCache.invalidateRestaurant(id);
+                changeVersionTracker.bump(ChangeVersionTracker.RESTAURANTS);
+                changeVersionTracker.bump(ChangeVersionTracker.ordersOf("restaurant", id));
+            });
 
             // 3. Get the updated restaurant data with full details
             List<Object[]> updatedRestaurantData = restaurantRepository.findRestaurantWithFullDetailsById(id);
@@ -317,6 +432,28 @@ public class RestaurantService {
                 productOrderRepository.deleteProductOrdersByOrderId(order.getId());
                 orderRepository.deleteOrderById(order.getId());
             }
+            orderViewRepository.deleteOrderViewsByRestaurantId(restaurantId);
+
+            // Couriers carrying one of the deleted unfinished orders can take the next one
+            List<Integer> courierIds = orders.stream()
+                .filter(order -> order.getCourier() != null
+                    && !referenceDataRegistry.isTerminalOrderStatus(order.getOrder_status().getId()))
+                .map(order -> order.getCourier().getId())
+                .distinct()
+                .collect(Collectors.toList());
+            courierService.releaseCouriersOfFinishedOrders(courierIds);
+
+            AfterCommit.run(() -> {
+                restaurantIndex.delete(restaurantId);
+                searchService.restaurantDeleted(restaurantId);
+                orderCache.invalidateRestaurant(restaurantId);
+                changeVersionTracker.bump(ChangeVersionTracker.RESTAURANTS);
+                productService.menuChanged(restaurantId);
+                for (Order order : orders) {
+                    changeVersionTracker.bumpOrderOwners(order.getCustomer().getId(), restaurantId,
+                        order.getCourier() != null ? order.getCourier().getId() : null);
+                }
+            });
 
             // 5. Delete products associated with the restaurant
             productRepository.deleteProductsByRestaurantId(restaurantId);
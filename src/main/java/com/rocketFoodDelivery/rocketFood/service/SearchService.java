@@ -0,0 +1,121 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiRestaurantDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiSearchProductDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiSearchResultDTO;
+import com.rocketFoodDelivery.rocketFood.exception.ServiceUnavailableException;
+import com.rocketFoodDelivery.rocketFood.index.CatalogSearchIndex;
+import com.rocketFoodDelivery.rocketFood.index.CatalogSearchIndex.SearchProduct;
+import com.rocketFoodDelivery.rocketFood.index.CatalogSearchIndex.SearchRestaurant;
+import com.rocketFoodDelivery.rocketFood.index.RestaurantIndex;
+import com.rocketFoodDelivery.rocketFood.repository.ProductRepository;
+import com.rocketFoodDelivery.rocketFood.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class SearchService {
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final RestaurantIndex restaurantIndex;
+    private final RestaurantRepository restaurantRepository;
+    private final ProductRepository productRepository;
+
+    @Autowired
+    public SearchService(CatalogSearchIndex catalogSearchIndex, RestaurantIndex restaurantIndex,
+                         RestaurantRepository restaurantRepository, ProductRepository productRepository) {
+        this.catalogSearchIndex = catalogSearchIndex;
+        this.restaurantIndex = restaurantIndex;
+        this.restaurantRepository = restaurantRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Searches (GET) restaurant names and product names and descriptions.
+     * Every word of the query must match; the last one also matches as a prefix, for autocomplete.
+     *
+     * @param query The text typed by the user.
+     * @param limit The maximum number of restaurants and of products to return.
+     * @return The matching restaurants and products, each ordered by id.
+     * @throws ServiceUnavailableException until the index has been loaded at startup
+     */
+    public ApiSearchResultDTO search(String query, int limit) {
+        if (!catalogSearchIndex.isReady()) {
+            throw new ServiceUnavailableException("Search index is still loading, retry later");
+        }
+
+        List<ApiRestaurantDTO> restaurants = new ArrayList<>();
+        for (SearchRestaurant hit : catalogSearchIndex.searchRestaurants(query, limit)) {
+            RestaurantIndex.IndexedRestaurant indexed = restaurantIndex.get(hit.getId());
+            restaurants.add(indexed != null ? indexed.toDTO() : new ApiRestaurantDTO(hit.getId(), hit.getName(), 0, 0));
+        }
+        List<ApiSearchProductDTO> products = catalogSearchIndex.searchProducts(query, limit).stream()
+            .map(hit -> new ApiSearchProductDTO(hit.getId(), hit.getName(), hit.getCost(), hit.getRestaurantId()))
+            .collect(Collectors.toList());
+        return new ApiSearchResultDTO(restaurants, products);
+    }
+
+    /**
+     * Loads every restaurant and product into the CatalogSearchIndex, replacing its content. Called once at startup
+     * by ReadModelBackfillJob; writes made while the snapshot is read are replayed on top of it.
+     *
+     * @return The number of restaurants and products indexed.
+     */
+    public int rebuildIndex() {
+        catalogSearchIndex.beginRebuild();
+        try {
+            List<SearchRestaurant> restaurants = new ArrayList<>();
+            for (Object[] row : restaurantRepository.findRestaurantIndexSnapshot()) {
+                restaurants.add(new SearchRestaurant(((Number) row[0]).intValue(), (String) row[1]));
+            }
+            List<SearchProduct> products = toSearchProducts(productRepository.findProductSearchRows());
+            catalogSearchIndex.rebuild(restaurants, products);
+            return restaurants.size() + products.size();
+        } catch (RuntimeException e) {
+            catalogSearchIndex.cancelRebuild();
+            throw e;
+        }
+    }
+
+    // The methods below are called by the write paths once their transaction has committed
+
+    public void restaurantSaved(int restaurantId, String name) {
+        catalogSearchIndex.putRestaurant(new SearchRestaurant(restaurantId, name));
+    }
+
+    public void restaurantDeleted(int restaurantId) {
+        catalogSearchIndex.removeRestaurant(restaurantId);
+    }
+
+    public void productAdded(int productId, int restaurantId, String name, String description, int cost) {
+        catalogSearchIndex.putProduct(new SearchProduct(productId, restaurantId, name, description, cost));
+    }
+
+    /**
+     * Re-reads the products of a restaurant, for writes that do not know the ids they created (bulk imports).
+     */
+    public void reindexProductsOfRestaurant(int restaurantId) {
+        catalogSearchIndex.replaceProductsOfRestaurant(restaurantId,
+            toSearchProducts(productRepository.findProductSearchRowsByRestaurantId(restaurantId)));
+    }
+
+    public void productsOfRestaurantDeleted(int restaurantId) {
+        catalogSearchIndex.replaceProductsOfRestaurant(restaurantId, List.of());
+    }
+
+    private static List<SearchProduct> toSearchProducts(List<Object[]> rows) {
+        List<SearchProduct> products = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            products.add(new SearchProduct(
+                ((Number) row[0]).intValue(),
+                ((Number) row[1]).intValue(),
+                (String) row[2],
+                (String) row[3],
+                ((Number) row[4]).intValue()));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,45 @@
+package com.rocketFoodDelivery.rocketFood.util;
+
+import com.rocketFoodDelivery.rocketFood.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used by the keyset-paginated order routes.
+ * A cursor only carries the id of the last order of the previous page; clients must treat it as opaque.
+ */
+public final class OrderCursor {
+    private static final String PREFIX = "o:";
+
+    private OrderCursor() {
+    }
+
+    public static String encode(int lastOrderId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((PREFIX + lastOrderId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The id of the last order of the previous page, or 0 when no cursor is given.
+     * @throws BadRequestException if the cursor was not produced by {@link #encode(int)}.
+     */
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            int lastOrderId = Integer.parseInt(decoded.substring(PREFIX.length()));
+            if (lastOrderId < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return lastOrderId;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.rocketFoodDelivery.rocketFood.util;
 
 import org.springframework.http.ResponseEntity;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiPagedResponseDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiResponseDTO;
 
 import org.springframework.http.HttpStatus;
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,6 +25,37 @@ public class ResponseBuilder {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    /**
+     * Builds a success response with message and data wrapper and an ETag header (HTTP 200)
+     */
+    public static ResponseEntity<Object> buildOkResponse(Object data, String etag) {
+        ApiResponseDTO response = new ApiResponseDTO();
+        response.setMessage("Success");
+        response.setData(data);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    /**
+     * Builds a success response with message and data wrapper, an ETag and one extra header (HTTP 200)
+     */
+    public static ResponseEntity<Object> buildOkResponse(Object data, String etag, String headerName, String headerValue) {
+        ApiResponseDTO response = new ApiResponseDTO();
+        response.setMessage("Success");
+        response.setData(data);
+        return ResponseEntity.ok().eTag(etag).header(headerName, headerValue).body(response);
+    }
+
+    /**
+     * Builds a success response for a paginated route with an ETag header (HTTP 200)
+     */
+    public static ResponseEntity<Object> buildPagedResponse(Object data, String nextCursor, String etag) {
+        ApiPagedResponseDTO response = new ApiPagedResponseDTO();
+        response.setMessage("Success");
+        response.setData(data);
+        response.setNextCursor(nextCursor);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
     /**
      * Builds a created response with message and data wrapper (HTTP 201)
      */
@@ -33,6 +66,16 @@ public class ResponseBuilder {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
     
+    /**
+     * Builds an accepted response with message and data wrapper, pointing to where the outcome can be followed (HTTP 202)
+     */
+    public static ResponseEntity<Object> buildAcceptedResponse(Object data, String location) {
+        ApiResponseDTO response = new ApiResponseDTO();
+        response.setMessage("Accepted");
+        response.setData(data);
+        return ResponseEntity.accepted().location(URI.create(location)).body(response);
+    }
+
     /**
      * Builds a direct response without wrapping in message/data structure (HTTP 200)
      */
@@ -26,6 +26,7 @@ import com.rocketFoodDelivery.rocketFood.controller.api.OrderApiController;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiAddressDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateOrderDTO;
 import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderPageDTO;
 import com.rocketFoodDelivery.rocketFood.repository.OrderRepository;
 import com.rocketFoodDelivery.rocketFood.service.OrderService;
 
@@ -95,7 +96,7 @@ public class OrderApiControllerTest {
                            5, "delivered", 2898)
         );
 
-        when(orderService.getOrdersByUserTypeAndId("customer", 5)).thenReturn(mockOrders);
+        when(orderService.getOrdersPageByUserTypeAndId("customer", 5, 0, 50)).thenReturn(new ApiOrderPageDTO(mockOrders, null));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/orders")
                 .param("type", "customer")
@@ -141,10 +142,21 @@ public class OrderApiControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Invalid or missing parameters"));
     }
 
+    @Test
+    public void testGetOrdersByUserTypeAndId_RejectsPagesAboveTheMaximumSize() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/orders")
+                .param("type", "customer")
+                .param("id", "5")
+                .param("limit", "501"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("Invalid or missing parameters"));
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     public void testGetOrdersByUserTypeAndId_Restaurant() throws Exception {
         List<ApiOrderDTO> mockOrders = Arrays.asList(createMockOrder(1, 2, "123 Main St", 1, "Fast Pub", "456 Oak Ave", 1, "pending", 2500));
-        when(orderService.getOrdersByUserTypeAndId("restaurant", 1)).thenReturn(mockOrders);
+        when(orderService.getOrdersPageByUserTypeAndId("restaurant", 1, 0, 50)).thenReturn(new ApiOrderPageDTO(mockOrders, null));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/orders")
                 .param("type", "restaurant")
@@ -156,7 +168,7 @@ public class OrderApiControllerTest {
     @Test
     public void testGetOrdersByUserTypeAndId_Courier() throws Exception {
         List<ApiOrderDTO> mockOrders = Arrays.asList(createMockOrder(1, 2, "123 Main St", 1, "Fast Pub", "456 Oak Ave", 1, "in transit", 3000));
-        when(orderService.getOrdersByUserTypeAndId("courier", 1)).thenReturn(mockOrders);
+        when(orderService.getOrdersPageByUserTypeAndId("courier", 1, 0, 50)).thenReturn(new ApiOrderPageDTO(mockOrders, null));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/orders")
                 .param("type", "courier")
@@ -0,0 +1,38 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class ChangeVersionTrackerTest {
+
+    @Test
+    public void testEtag_DependsOnTheQueryParametersButNotTheirOrder() {
+        ChangeVersionTracker tracker = new ChangeVersionTracker();
+        Map<String, String[]> ratingFirst = new LinkedHashMap<>();
+        ratingFirst.put("rating", new String[] {"4"});
+        ratingFirst.put("price_range", new String[] {"2"});
+        Map<String, String[]> priceFirst = new LinkedHashMap<>();
+        priceFirst.put("price_range", new String[] {"2"});
+        priceFirst.put("rating", new String[] {"4"});
+
+        String etag = tracker.etag(ChangeVersionTracker.RESTAURANTS, ratingFirst);
+
+        assertEquals(etag, tracker.etag(ChangeVersionTracker.RESTAURANTS, priceFirst));
+        assertNotEquals(etag, tracker.etag(ChangeVersionTracker.RESTAURANTS, Map.of("rating", new String[] {"3"})));
+        assertNotEquals(etag, tracker.etag(ChangeVersionTracker.RESTAURANTS, Map.of()));
+    }
+
+    @Test
+    public void testEtag_EncodesQuotesInParameterValues() {
+        String etag = new ChangeVersionTracker().etag("orders-customer-5", Map.of("cursor", new String[] {"a\"b c"}));
+
+        assertFalse(etag.substring(1, etag.length() - 1).contains("\""));
+        assertEquals("cursor=a%22b+c", ChangeVersionTracker.normalizedQuery(Map.of("cursor", new String[] {"a\"b c"})));
+    }
+}
@@ -0,0 +1,146 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.rocketFoodDelivery.rocketFood.exception.ValidationException;
+
+public class IdempotencyStoreTest {
+
+    @Test
+    public void testExecute_InFlightDuplicatesWaitForFirstResult() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(100, 60, 5000);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> store.execute("customer-5", "key-1", "body", () -> {
+                    executions.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return 42;
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExecute_FailuresAreNotRemembered() {
+        IdempotencyStore store = new IdempotencyStore(100, 60, 5000);
+
+        assertThrows(IllegalStateException.class, () -> store.execute("customer-5", "key-1", "body", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals("created", store.execute("customer-5", "key-1", "body", () -> "created"));
+        assertEquals("created", store.execute("customer-5", "key-1", "body", () -> "again"));
+    }
+
+    @Test
+    public void testExecute_ErrorsAreNotRemembered() {
+        IdempotencyStore store = new IdempotencyStore(100, 60, 5000);
+
+        assertThrows(OutOfMemoryError.class, () -> store.execute("customer-5", "key-1", "body", () -> {
+            throw new OutOfMemoryError("Java heap space");
+        }));
+
+        assertEquals(0, store.size());
+        assertEquals("created", store.execute("customer-5", "key-1", "body", () -> "created"));
+    }
+
+    @Test
+    public void testExecute_RejectsKeyReusedForAnotherRequest() {
+        IdempotencyStore store = new IdempotencyStore(100, 60, 5000);
+        store.execute("customer-5", "key-1", "body", () -> 1);
+
+        assertThrows(ValidationException.class, () -> store.execute("customer-5", "key-1", "other body", () -> 2));
+    }
+
+    @Test
+    public void testExecute_ExpiredAndEvictedKeysRunAgain() {
+        IdempotencyStore expiring = new IdempotencyStore(100, 0, 5000);
+        expiring.execute("customer-5", "key-1", "body", () -> 1);
+        assertEquals(2, (int) expiring.execute("customer-5", "key-1", "body", () -> 2));
+
+        IdempotencyStore bounded = new IdempotencyStore(64, 60, 5000);
+        for (int i = 0; i < 1000; i++) {
+            String key = "key-" + i;
+            bounded.execute("customer-5", key, "body", () -> key);
+        }
+        assertTrue(bounded.size() <= 64);
+    }
+
+    @Test
+    public void testExecute_SameKeyOfAnotherCallerRunsSeparately() {
+        IdempotencyStore store = new IdempotencyStore(100, 60, 5000);
+
+        assertEquals(1, (int) store.execute("customer-5", "key-1", "body", () -> 1));
+        assertEquals(2, (int) store.execute("customer-6", "key-1", "other body", () -> 2));
+        assertEquals(1, (int) store.execute("customer-5", "key-1", "body", () -> 3));
+    }
+
+    @Test
+    public void testExecute_InFlightKeysAreNotEvicted() throws Exception {
+        // One entry per stripe, so every new key pushes the finished ones out
+        IdempotencyStore store = new IdempotencyStore(1, 60, 5000);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> store.execute("customer-5", "slow", "body", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 1;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 10; i++) {
+                String key = "key-" + i;
+                store.execute("customer-5", key, "body", () -> key);
+            }
+            Future<Integer> retry = executor.submit(() -> store.execute("customer-5", "slow", "body", () -> {
+                executions.incrementAndGet();
+                return 2;
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, retry.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
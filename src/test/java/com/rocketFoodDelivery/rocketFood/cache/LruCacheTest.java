@@ -0,0 +1,50 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LruCacheTest {
+
+    @Test
+    public void testPutIfNotInvalidatedSince_OnlyInvalidationsOfTheSameSegmentDropTheValue() {
+        LruCache<Integer, String> cache = new LruCache<>(100);
+        long stamp = cache.stamp(1);
+        long otherStamp = cache.stamp(2);
+
+        // 17 lands in the same segment as 1, 2 in another one
+        cache.invalidate(17);
+        cache.putIfNotInvalidatedSince(1, "stale", stamp);
+        cache.putIfNotInvalidatedSince(2, "fresh", otherStamp);
+
+        assertNull(cache.get(1));
+        assertEquals("fresh", cache.get(2));
+        assertEquals(1, cache.stats().getInvalidations());
+    }
+
+    @Test
+    public void testGetAndPut_CopyValuesWithTheCopier() {
+        LruCache<Integer, List<String>> cache = new LruCache<>(100, 0, ArrayList::new);
+        List<String> stored = new ArrayList<>(List.of("a"));
+        cache.put(1, stored);
+        stored.add("b");
+        cache.get(1).add("c");
+
+        assertEquals(List.of("a"), cache.get(1));
+    }
+
+    @Test
+    public void testPut_EvictsTheLeastRecentlyUsedEntryOfAFullSegment() {
+        LruCache<Integer, String> cache = new LruCache<>(16);
+        cache.put(1, "one");
+        cache.put(17, "seventeen");
+
+        assertNull(cache.get(1));
+        assertEquals("seventeen", cache.get(17));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+}
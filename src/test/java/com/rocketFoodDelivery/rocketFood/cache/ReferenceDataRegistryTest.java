@@ -0,0 +1,72 @@
+package com.rocketFoodDelivery.rocketFood.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rocketFoodDelivery.rocketFood.models.CourierStatus;
+import com.rocketFoodDelivery.rocketFood.models.OrderStatus;
+import com.rocketFoodDelivery.rocketFood.repository.CourierStatusRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderStatusRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class ReferenceDataRegistryTest {
+
+    @Mock
+    private OrderStatusRepository orderStatusRepository;
+
+    @Mock
+    private CourierStatusRepository courierStatusRepository;
+
+    @Test
+    public void testLookups_LoadTablesOnce() {
+        when(orderStatusRepository.findAll()).thenReturn(List.of(
+            new OrderStatus(2, "in progress"), new OrderStatus(1, "pending"), new OrderStatus(3, "delivered")));
+        when(courierStatusRepository.findAll()).thenReturn(List.of(new CourierStatus(1, "free"), new CourierStatus(2, "busy")));
+        ReferenceDataRegistry registry = new ReferenceDataRegistry(orderStatusRepository, courierStatusRepository);
+
+        assertEquals(1, registry.orderStatusId("pending"));
+        assertEquals(2, registry.findOrderStatusByName("In Progress").get().getId());
+        assertEquals("delivered", registry.findOrderStatusById(3).get().getName());
+        assertEquals(List.of(1, 2, 3), registry.getOrderStatuses().stream().map(OrderStatus::getId).toList());
+        assertEquals(2, registry.findCourierStatusByName("busy").get().getId());
+        assertTrue(registry.findOrderStatusByName("cancelled").isEmpty());
+        assertThrows(IllegalStateException.class, () -> registry.orderStatusId("cancelled"));
+
+        verify(orderStatusRepository, times(1)).findAll();
+        verify(courierStatusRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void testRefresh_PicksUpNewRows() {
+        when(orderStatusRepository.findAll())
+            .thenReturn(List.of(new OrderStatus(1, "pending")))
+            .thenReturn(List.of(new OrderStatus(1, "pending"), new OrderStatus(4, "cancelled")));
+        when(courierStatusRepository.findAll()).thenReturn(List.of());
+        ReferenceDataRegistry registry = new ReferenceDataRegistry(orderStatusRepository, courierStatusRepository);
+
+        assertTrue(registry.findOrderStatusByName("cancelled").isEmpty());
+        registry.refresh();
+
+        assertEquals(4, registry.orderStatusId("cancelled"));
+    }
+
+    @Test
+    public void testReturnedStatusesAreCopies() {
+        when(orderStatusRepository.findAll()).thenReturn(List.of(new OrderStatus(1, "pending")));
+        when(courierStatusRepository.findAll()).thenReturn(List.of());
+        ReferenceDataRegistry registry = new ReferenceDataRegistry(orderStatusRepository, courierStatusRepository);
+
+        registry.findOrderStatusById(1).get().setName("changed");
+
+        assertEquals("pending", registry.findOrderStatusById(1).get().getName());
+    }
+}
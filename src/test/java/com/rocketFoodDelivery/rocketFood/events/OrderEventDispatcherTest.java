@@ -0,0 +1,147 @@
+package com.rocketFoodDelivery.rocketFood.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderEventDTO;
+import com.rocketFoodDelivery.rocketFood.exception.TooManyRequestsException;
+
+public class OrderEventDispatcherTest {
+
+    private final OrderEventDispatcher dispatcher = new OrderEventDispatcher(4, 3, 2, 60, 0, 0);
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void testPublish_ReachesOrderAndOwnerSubscribersOnce() throws Exception {
+        RecordingEmitter orderFollower = new RecordingEmitter(null);
+        RecordingEmitter customer = new RecordingEmitter(null);
+        RecordingEmitter otherCustomer = new RecordingEmitter(null);
+        dispatcher.register(orderFollower, List.of(OrderEventDispatcher.orderScope(1),
+            ChangeVersionTracker.ordersOf("customer", 5)));
+        dispatcher.register(customer, List.of(ChangeVersionTracker.ordersOf("customer", 5)));
+        dispatcher.register(otherCustomer, List.of(ChangeVersionTracker.ordersOf("customer", 6)));
+
+        dispatcher.publish(event(1, 5));
+
+        assertTrue(orderFollower.sent.poll(5, TimeUnit.SECONDS) != null);
+        assertTrue(customer.sent.poll(5, TimeUnit.SECONDS) != null);
+        Thread.sleep(100);
+        assertTrue(orderFollower.sent.isEmpty());
+        assertTrue(otherCustomer.sent.isEmpty());
+    }
+
+    @Test
+    public void testPublish_SlowSubscriberIsDroppedWithoutBlockingPublisher() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        dispatcher.register(slow, List.of(ChangeVersionTracker.ordersOf("restaurant", 1)));
+        dispatcher.register(fast, List.of(ChangeVersionTracker.ordersOf("restaurant", 1)));
+
+        // The slow client blocks on its first event; four more fill its queue and the sixth overflows it
+        long publishNanos = 0;
+        for (int orderId = 1; orderId <= 6; orderId++) {
+            long start = System.nanoTime();
+            dispatcher.publish(event(orderId, 5));
+            publishNanos += System.nanoTime() - start;
+            assertTrue(fast.sent.poll(5, TimeUnit.SECONDS) != null, "fast subscriber missed event " + orderId);
+        }
+        release.countDown();
+
+        long publishMillis = TimeUnit.NANOSECONDS.toMillis(publishNanos);
+        assertTrue(publishMillis < 1000, "publishing waited on a subscriber for " + publishMillis + " ms");
+        assertEquals(1, dispatcher.getDroppedCount());
+        assertEquals(1, dispatcher.getSubscriberCount());
+    }
+
+    @Test
+    public void testDeliver_StalledSendIsAbortedAndFreesTheDeliveryThread() throws Exception {
+        OrderEventDispatcher singleThreaded = new OrderEventDispatcher(4, 3, 1, 60, 0, 200);
+        try {
+            RecordingEmitter stalled = new RecordingEmitter(new CountDownLatch(1));
+            RecordingEmitter fast = new RecordingEmitter(null);
+            singleThreaded.register(stalled, List.of(OrderEventDispatcher.orderScope(1)));
+            singleThreaded.register(fast, List.of(OrderEventDispatcher.orderScope(2)));
+
+            // The stalled client takes the only delivery thread before the fast one's event is queued
+            singleThreaded.publish(event(1, 5));
+            Thread.sleep(50);
+            singleThreaded.publish(event(2, 6));
+
+            assertTrue(fast.sent.poll(3, TimeUnit.SECONDS) != null, "stalled send held the delivery thread");
+            assertTrue(stalled.completed.await(3, TimeUnit.SECONDS), "stalled emitter was never completed");
+            assertTrue(stalled.sent.isEmpty());
+            assertEquals(1, singleThreaded.getDroppedCount());
+            assertEquals(1, singleThreaded.getSubscriberCount());
+        } finally {
+            singleThreaded.shutdown();
+        }
+    }
+
+    @Test
+    public void testRegister_RejectsSubscribersOverLimit() {
+        for (int i = 0; i < 3; i++) {
+            dispatcher.register(new RecordingEmitter(null), List.of(OrderEventDispatcher.orderScope(i)));
+        }
+
+        assertThrows(TooManyRequestsException.class,
+            () -> dispatcher.register(new RecordingEmitter(null), List.of(OrderEventDispatcher.orderScope(9))));
+    }
+
+    private static ApiOrderEventDTO event(int orderId, int customerId) {
+        return new ApiOrderEventDTO(ApiOrderEventDTO.STATUS, orderId, customerId, 1, null, "delivered",
+            System.currentTimeMillis());
+    }
+
+    // Records sent events instead of writing to a response; optionally blocks like a client that stopped reading
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch block;
+
+        RecordingEmitter(CountDownLatch block) {
+            this.block = block;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (block != null) {
+                try {
+                    block.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException("Write interrupted", e);
+                }
+            }
+            sent.add(builder);
+        }
+
+        @Override
+        public void complete() {
+            super.complete();
+            completed.countDown();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            super.completeWithError(ex);
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.rocketFoodDelivery.rocketFood.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
+import com.rocketFoodDelivery.rocketFood.models.OrderStatus;
+import com.rocketFoodDelivery.rocketFood.repository.CourierStatusRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderStatusRepository;
+
+public class OrderEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testAppend_RollsSegmentsAndReplaysInOrder() throws Exception {
+        OrderEventLog log = openLog();
+        for (int orderId = 1; orderId <= 10; orderId++) {
+            assertTrue(log.append(created(orderId)));
+        }
+        log.close();
+
+        assertEquals(3, segmentCount());
+        List<OrderEventRecord> replayed = new ArrayList<>();
+        assertEquals(10, log.replay(0, replayed::add));
+        assertEquals(10, replayed.get(9).getOrderId());
+        assertEquals(9, replayed.get(9).getSequence());
+        assertEquals(5, replayed.get(4).getCustomerId());
+
+        List<OrderEventRecord> tail = new ArrayList<>();
+        assertEquals(3, log.replay(7, tail::add));
+        assertEquals(8, tail.get(0).getOrderId());
+    }
+
+    @Test
+    public void testOpen_ContinuesAfterLastValidRecord() throws Exception {
+        OrderEventLog log = openLog();
+        for (int orderId = 1; orderId <= 6; orderId++) {
+            log.append(created(orderId));
+        }
+        log.close();
+        // Simulate a record torn by a crash: the 6th record (second of its segment) loses its checksum
+        try (FileChannel segment = FileChannel.open(directory.resolve(String.format("%020d.log", 4)), StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.allocate(4), OrderEventRecord.SIZE + 28);
+        }
+
+        OrderEventLog reopened = openLog();
+        assertEquals(5, reopened.getNextSequence());
+        reopened.append(new OrderEventRecord(-1, 2000, OrderEventRecord.STATUS_CHANGED, 6, 5, 1, 9, 2));
+        reopened.close();
+
+        List<OrderEventRecord> replayed = new ArrayList<>();
+        reopened.replay(0, replayed::add);
+        assertEquals(6, replayed.size());
+        assertEquals(OrderEventRecord.STATUS_CHANGED, replayed.get(5).getType());
+        assertEquals(9, replayed.get(5).getCourierId());
+        assertEquals(2, replayed.get(5).getStatusId());
+    }
+
+    @Test
+    public void testReplayAndFollow_ProjectionSeesEveryRecordOnce() throws Exception {
+        OrderEventLog log = openLog();
+        log.append(created(1));
+        log.append(created(2));
+        OrderHistoryProjection projection = new OrderHistoryProjection(log, referenceData(), 10);
+
+        assertEquals(2, projection.rebuild());
+        log.append(new OrderEventRecord(-1, 2000, OrderEventRecord.STATUS_CHANGED, 1, 5, 1, null, 2));
+        log.close();
+
+        assertEquals(2, projection.getHistory(1).size());
+        assertEquals(2, projection.getHistory(1).get(1).getSequence());
+        assertEquals(1, projection.getHistory(2).size());
+        assertTrue(projection.getHistory(3).isEmpty());
+    }
+
+    @Test
+    public void testRebuild_AgainDoesNotDeliverRecordsTwice() throws Exception {
+        OrderEventLog log = openLog();
+        log.append(created(1));
+        OrderHistoryProjection projection = new OrderHistoryProjection(log, referenceData(), 10);
+
+        projection.rebuild();
+        assertEquals(1, projection.rebuild());
+        log.append(new OrderEventRecord(-1, 2000, OrderEventRecord.STATUS_CHANGED, 1, 5, 1, null, 2));
+        log.close();
+
+        assertEquals(List.of(0L, 1L), projection.getHistory(1).stream()
+            .map(OrderEventRecord::getSequence).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testApply_EvictsOldestFinishedOrdersAndIgnoresDuplicates() {
+        OrderHistoryProjection projection = new OrderHistoryProjection(disabledLog(), referenceData(), 2);
+        for (int orderId = 1; orderId <= 4; orderId++) {
+            projection.apply(new OrderEventRecord(orderId * 10, 1000, OrderEventRecord.CREATED, orderId, 5, 1, null, 1));
+        }
+        // Delivered: orders 1, 2 and 3, in that order; order 4 stays in progress
+        for (int orderId = 1; orderId <= 3; orderId++) {
+            projection.apply(new OrderEventRecord(orderId * 10 + 1, 2000, OrderEventRecord.STATUS_CHANGED, orderId, 5, 1, null, 3));
+        }
+        projection.apply(new OrderEventRecord(41, 2000, OrderEventRecord.STATUS_CHANGED, 4, 5, 1, null, 2));
+        projection.apply(new OrderEventRecord(41, 2000, OrderEventRecord.STATUS_CHANGED, 4, 5, 1, null, 2));
+        projection.apply(new OrderEventRecord(40, 1000, OrderEventRecord.CREATED, 4, 5, 1, null, 1));
+
+        assertTrue(projection.getHistory(1).isEmpty());
+        assertEquals(2, projection.getHistory(2).size());
+        assertEquals(2, projection.getHistory(3).size());
+        assertEquals(List.of(40L, 41L), projection.getHistory(4).stream()
+            .map(OrderEventRecord::getSequence).collect(Collectors.toList()));
+        assertEquals(3, projection.size());
+    }
+
+    private static ReferenceDataRegistry referenceData() {
+        OrderStatusRepository orderStatusRepository = mock(OrderStatusRepository.class);
+        when(orderStatusRepository.findAll()).thenReturn(List.of(
+            new OrderStatus(1, "pending"), new OrderStatus(2, "in progress"), new OrderStatus(3, "delivered")));
+        return new ReferenceDataRegistry(orderStatusRepository, mock(CourierStatusRepository.class));
+    }
+
+    private OrderEventLog disabledLog() {
+        return new OrderEventLog(false, directory.toString(), 4, 1024, 1000);
+    }
+
+    private OrderEventLog openLog() throws IOException {
+        OrderEventLog log = new OrderEventLog(true, directory.toString(), 4, 1024, 1000);
+        log.open();
+        return log;
+    }
+
+    private static OrderEventRecord created(int orderId) {
+        return new OrderEventRecord(-1, 1000 + orderId, OrderEventRecord.CREATED, orderId, 5, 1, null, 1);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList()).size();
+        }
+    }
+}
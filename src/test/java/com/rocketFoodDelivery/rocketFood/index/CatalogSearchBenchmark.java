@@ -0,0 +1,46 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.rocketFoodDelivery.rocketFood.index.CatalogSearchIndex.SearchProduct;
+
+/**
+ * Times CatalogSearchIndex.searchProducts over the 100,000 synthetic products of
+ * CatalogSearchIndexTest.testSearch_PrefixOverLargeCatalog, for short and long prefixes. Wall-clock numbers
+ * depend on the machine, so this only reports them and is not part of the regular test run (surefire only
+ * picks up *Test classes). Run it with:
+ *
+ *     mvn test -Dtest=CatalogSearchBenchmark
+ */
+public class CatalogSearchBenchmark {
+    private static final String[] QUERIES = {"d", "di", "dis", "dish1", "dish9", "dish99", "dish999", "dish12345", "special recipe 3", "recipe 3 sp", "zz"};
+
+    @Test
+    public void searchProducts() {
+        CatalogSearchIndex catalogSearchIndex = new CatalogSearchIndex();
+        catalogSearchIndex.rebuild(List.of(), CatalogSearchIndexTest.largeCatalog());
+
+        // Warm up so the measured rounds are not dominated by class loading and JIT compilation
+        for (int i = 0; i < 200; i++) {
+            for (String query : QUERIES) {
+                catalogSearchIndex.searchProducts(query, 20);
+            }
+        }
+
+        int rounds = 1_000;
+        for (String query : QUERIES) {
+            long[] nanos = new long[rounds];
+            for (int round = 0; round < rounds; round++) {
+                long start = System.nanoTime();
+                catalogSearchIndex.searchProducts(query, 20);
+                nanos[round] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("CatalogSearchIndex.searchProducts(\"%s\"): p50 %.3f ms, p99 %.3f ms%n",
+                query, nanos[rounds / 2] / 1e6, nanos[rounds * 99 / 100] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.rocketFoodDelivery.rocketFood.index.CatalogSearchIndex.SearchProduct;
+import com.rocketFoodDelivery.rocketFood.index.CatalogSearchIndex.SearchRestaurant;
+
+public class CatalogSearchIndexTest {
+
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        catalogSearchIndex = new CatalogSearchIndex();
+        catalogSearchIndex.rebuild(
+            List.of(new SearchRestaurant(1, "Pizzeria Napoli"), new SearchRestaurant(2, "Café Crème")),
+            List.of(
+                new SearchProduct(10, 1, "Pizza Margherita", "Tomato, mozzarella and basil", 1200),
+                new SearchProduct(11, 1, "Pizza Diavola", "Spicy salami", 1400),
+                new SearchProduct(12, 2, "Croissant", null, 300)));
+    }
+
+    @Test
+    public void testSearch_MatchesTokensAndLastTokenPrefix() {
+        assertEquals(List.of(1), restaurantIds("pizz"));
+        assertEquals(List.of(10, 11), productIds("pizza"));
+        assertEquals(List.of(10), productIds("pizza mozz"));
+        assertEquals(List.of(), productIds("piz mozzarella"));
+        assertEquals(List.of(2), restaurantIds("cafe CREME"));
+        assertTrue(productIds("  ,  ").isEmpty());
+        assertEquals(1, catalogSearchIndex.searchProducts("pizza", 1).size());
+    }
+
+    @Test
+    public void testUpdates_AreVisibleToSearch() {
+        catalogSearchIndex.putRestaurant(new SearchRestaurant(1, "Trattoria Roma"));
+        catalogSearchIndex.putProduct(new SearchProduct(13, 2, "Pain au chocolat", "Butter", 350));
+
+        assertEquals(List.of(), restaurantIds("pizzeria"));
+        assertEquals(List.of(1), restaurantIds("trat"));
+        assertEquals(List.of(13), productIds("choc"));
+
+        catalogSearchIndex.replaceProductsOfRestaurant(2, List.of());
+        catalogSearchIndex.removeRestaurant(1);
+
+        assertEquals(List.of(), productIds("pizza"));
+        assertEquals(List.of(), productIds("croissant"));
+        assertEquals(List.of(), restaurantIds("trattoria"));
+    }
+
+    @Test
+    public void testRebuild_ReplaysWritesMadeWhileTheSnapshotWasRead() {
+        catalogSearchIndex.beginRebuild();
+        // Committed after the snapshot below was read
+        catalogSearchIndex.putProduct(new SearchProduct(13, 2, "Pain au chocolat", "Butter", 350));
+        catalogSearchIndex.removeRestaurant(1);
+
+        catalogSearchIndex.rebuild(
+            List.of(new SearchRestaurant(1, "Pizzeria Napoli"), new SearchRestaurant(2, "Café Crème")),
+            List.of(
+                new SearchProduct(10, 1, "Pizza Margherita", "Tomato, mozzarella and basil", 1200),
+                new SearchProduct(12, 2, "Croissant", null, 300)));
+
+        assertEquals(List.of(13), productIds("choc"));
+        assertEquals(List.of(), restaurantIds("pizzeria"));
+        assertEquals(List.of(), productIds("pizza"));
+
+        // Writes after the rebuild are no longer recorded
+        catalogSearchIndex.rebuild(List.of(), List.of());
+        assertEquals(List.of(), productIds("choc"));
+    }
+
+    @Test
+    public void testPutProduct_MovingAProductToAnotherRestaurantKeepsRemovalsPerRestaurant() {
+        catalogSearchIndex.putProduct(new SearchProduct(11, 2, "Pizza Diavola", "Spicy salami", 1400));
+
+        catalogSearchIndex.removeRestaurant(1);
+        assertEquals(List.of(11), productIds("pizza"));
+
+        catalogSearchIndex.replaceProductsOfRestaurant(2, List.of());
+        assertEquals(List.of(), productIds("pizza"));
+        assertEquals(List.of(), productIds("croissant"));
+    }
+
+    @Test
+    public void testSearch_PrefixOverLargeCatalog() {
+        catalogSearchIndex.rebuild(List.of(), largeCatalog());
+
+        assertEquals(List.of(12345), catalogSearchIndex.searchProducts("dish12345", 20).stream()
+            .map(SearchProduct::getId).collect(Collectors.toList()));
+        assertEquals(20, catalogSearchIndex.searchProducts("special recipe 3", 20).size());
+        assertEquals(11, catalogSearchIndex.searchProducts("dish1234", 20).size());
+    }
+
+    @Test
+    public void testSearch_ShortPrefixOverLargeCatalogStopsAtTheLimit() {
+        List<SearchProduct> products = largeCatalog();
+        catalogSearchIndex.rebuild(List.of(), products);
+
+        // "d" and "di" expand to every one of the 100,000 dishN tokens
+        List<Integer> first20 = IntStream.rangeClosed(1, 20).boxed().collect(Collectors.toList());
+        assertEquals(first20, productIds("d"));
+        assertEquals(first20, productIds("di"));
+        for (String query : List.of("dish99", "dish999", "recipe 3 d", "special c", "dish5 s")) {
+            List<String> tokens = CatalogSearchIndex.tokenize(query);
+            List<Integer> expected = products.stream()
+                .filter(product -> matches(product, tokens))
+                .limit(20)
+                .map(SearchProduct::getId)
+                .collect(Collectors.toList());
+            assertEquals(expected, productIds(query), query);
+        }
+    }
+
+    // Brute force version of the query semantics: every token exactly, the last one also as a prefix
+    private static boolean matches(SearchProduct product, List<String> queryTokens) {
+        List<String> tokens = CatalogSearchIndex.tokenize(product.getName() + " " + product.getDescription());
+        for (int i = 0; i < queryTokens.size() - 1; i++) {
+            if (!tokens.contains(queryTokens.get(i))) {
+                return false;
+            }
+        }
+        String prefix = queryTokens.get(queryTokens.size() - 1);
+        return tokens.stream().anyMatch(token -> token.startsWith(prefix));
+    }
+
+    static List<SearchProduct> largeCatalog() {
+        List<SearchProduct> products = new ArrayList<>();
+        for (int id = 1; id <= 100_000; id++) {
+            products.add(new SearchProduct(id, id % 100, "Dish" + id + " special", "Chef recipe " + (id % 7), 500));
+        }
+        return products;
+    }
+
+    private List<Integer> restaurantIds(String query) {
+        return catalogSearchIndex.searchRestaurants(query, 20).stream()
+            .map(SearchRestaurant::getId).collect(Collectors.toList());
+    }
+
+    private List<Integer> productIds(String query) {
+        return catalogSearchIndex.searchProducts(query, 20).stream()
+            .map(SearchProduct::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.rocketFoodDelivery.rocketFood.index.CourierPool.PooledCourier;
+
+/**
+ * Times CourierPool.claimNearest with 5,000 synthetic couriers spread over 40 x 40 km and 20,000 synthetic
+ * orders, about half of the couriers being out on a delivery at any time. Wall-clock numbers depend on the
+ * machine, so this only reports them and is not part of the regular test run (surefire only picks up *Test
+ * classes). Run it with:
+ *
+ *     mvn test -Dtest=CourierPoolBenchmark
+ */
+public class CourierPoolBenchmark {
+    private static final double MONTREAL_LATITUDE = 45.5017;
+    private static final double MONTREAL_LONGITUDE = -73.5673;
+
+    @Test
+    public void claimNearest() {
+        Random random = new Random(42);
+        int courierCount = 5_000;
+        int orderCount = 20_000;
+        CourierPool courierPool = new CourierPool();
+        List<PooledCourier> couriers = new ArrayList<>(courierCount);
+        for (int id = 1; id <= courierCount; id++) {
+            couriers.add(new PooledCourier(id, CourierPoolTest.around(MONTREAL_LATITUDE, 0.36, random),
+                CourierPoolTest.around(MONTREAL_LONGITUDE, 0.51, random), "Montreal"));
+        }
+        courierPool.rebuild(couriers);
+
+        // Warm up so the measured rounds are not dominated by class loading and JIT compilation
+        for (int i = 0; i < 20_000; i++) {
+            courierPool.add(courierPool.claimNearest(CourierPoolTest.around(MONTREAL_LATITUDE, 0.36, random),
+                CourierPoolTest.around(MONTREAL_LONGITUDE, 0.51, random), "Montreal", 10));
+        }
+
+        long elapsedNanos = 0;
+        long worstNanos = 0;
+        List<PooledCourier> delivering = new ArrayList<>();
+        for (int order = 0; order < orderCount; order++) {
+            double latitude = CourierPoolTest.around(MONTREAL_LATITUDE, 0.36, random);
+            double longitude = CourierPoolTest.around(MONTREAL_LONGITUDE, 0.51, random);
+
+            long start = System.nanoTime();
+            PooledCourier claimed = courierPool.claimNearest(latitude, longitude, "Montreal", 10);
+            long took = System.nanoTime() - start;
+            elapsedNanos += took;
+            worstNanos = Math.max(worstNanos, took);
+
+            delivering.add(claimed);
+            if (delivering.size() > courierCount / 2) {
+                courierPool.add(delivering.remove(random.nextInt(delivering.size())));
+            }
+        }
+
+        System.out.printf("CourierPool.claimNearest: %d couriers, %d orders, average %.1f us, worst %.1f us%n",
+            courierCount, orderCount, elapsedNanos / 1_000.0 / orderCount, worstNanos / 1_000.0);
+    }
+}
@@ -0,0 +1,130 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.rocketFoodDelivery.rocketFood.index.CourierPool.PooledCourier;
+
+public class CourierPoolTest {
+    private static final double MONTREAL_LATITUDE = 45.5017;
+    private static final double MONTREAL_LONGITUDE = -73.5673;
+
+    private CourierPool courierPool;
+
+    @BeforeEach
+    public void setUp() {
+        courierPool = new CourierPool();
+        courierPool.rebuild(List.of(
+            new PooledCourier(1, 45.5100, -73.5600, "Montreal"),
+            new PooledCourier(2, 45.5020, -73.5680, "Montreal"),
+            new PooledCourier(3, 45.6000, -73.4000, "Montreal"),
+            new PooledCourier(4, null, null, "Montreal"),
+            new PooledCourier(5, null, null, "Laval")));
+    }
+
+    @Test
+    public void testClaimNearest_TakesClosestCourierOutOfThePool() {
+        PooledCourier first = courierPool.claimNearest(MONTREAL_LATITUDE, MONTREAL_LONGITUDE, "Montreal", 10);
+        PooledCourier second = courierPool.claimNearest(MONTREAL_LATITUDE, MONTREAL_LONGITUDE, "Montreal", 10);
+
+        assertEquals(2, first.getId());
+        assertEquals(1, second.getId());
+        assertFalse(courierPool.contains(2));
+        assertEquals(3, courierPool.size());
+    }
+
+    @Test
+    public void testClaimNearest_FallsBackToCouriersOfTheSameCity() {
+        courierPool.remove(1);
+        courierPool.remove(2);
+
+        // Courier 3 is about 17 km away, so the Montreal courier without coordinates is used instead
+        assertEquals(4, courierPool.claimNearest(MONTREAL_LATITUDE, MONTREAL_LONGITUDE, "montreal", 10).getId());
+        assertNull(courierPool.claimNearest(MONTREAL_LATITUDE, MONTREAL_LONGITUDE, "Montreal", 10));
+        assertEquals(3, courierPool.claimNearest(MONTREAL_LATITUDE, MONTREAL_LONGITUDE, "Montreal", 20).getId());
+
+        // Restaurants without coordinates get any courier of their city
+        assertEquals(5, courierPool.claimNearest(null, null, "Laval", 10).getId());
+        assertNull(courierPool.claimNearest(null, null, "Laval", 10));
+    }
+
+    @Test
+    public void testAdd_ReplacesTheCourierEntry() {
+        courierPool.add(new PooledCourier(3, 45.5018, -73.5674, "Montreal"));
+
+        assertEquals(5, courierPool.size());
+        assertEquals(3, courierPool.claimNearest(MONTREAL_LATITUDE, MONTREAL_LONGITUDE, "Montreal", 10).getId());
+    }
+
+    /**
+     * 5,000 synthetic couriers spread over 40 x 40 km, matched with 20,000 synthetic orders while couriers keep
+     * coming back into the pool, as they do when deliveries end. Every hundredth match is checked against a
+     * brute-force scan of the couriers in the pool. Timing is measured by CourierPoolBenchmark instead.
+     */
+    @Test
+    public void testClaimNearest_MatchesBruteForceWithThousandsOfCouriers() {
+        Random random = new Random(42);
+        int courierCount = 5_000;
+        int orderCount = 20_000;
+        List<PooledCourier> couriers = new ArrayList<>(courierCount);
+        for (int id = 1; id <= courierCount; id++) {
+            couriers.add(new PooledCourier(id, around(MONTREAL_LATITUDE, 0.36, random),
+                around(MONTREAL_LONGITUDE, 0.51, random), "Montreal"));
+        }
+        courierPool.rebuild(couriers);
+        Set<PooledCourier> free = new HashSet<>(couriers);
+
+        List<PooledCourier> delivering = new ArrayList<>();
+        for (int order = 0; order < orderCount; order++) {
+            double latitude = around(MONTREAL_LATITUDE, 0.36, random);
+            double longitude = around(MONTREAL_LONGITUDE, 0.51, random);
+            PooledCourier expected = order % 100 == 0 ? bruteForceNearest(free, latitude, longitude) : null;
+            PooledCourier claimed = courierPool.claimNearest(latitude, longitude, "Montreal", 10);
+
+            assertNotNull(claimed);
+            assertTrue(free.remove(claimed));
+            if (expected != null) {
+                assertEquals(CourierPool.distanceKm(latitude, longitude, expected.getLatitude(), expected.getLongitude()),
+                    CourierPool.distanceKm(latitude, longitude, claimed.getLatitude(), claimed.getLongitude()), 1e-9);
+            }
+            delivering.add(claimed);
+            // Keep about half of the couriers busy at any time
+            if (delivering.size() > courierCount / 2) {
+                PooledCourier done = delivering.remove(random.nextInt(delivering.size()));
+                courierPool.add(done);
+                free.add(done);
+            }
+        }
+
+        assertEquals(free.size(), courierPool.size());
+    }
+
+    static double around(double center, double span, Random random) {
+        return center + (random.nextDouble() - 0.5) * span;
+    }
+
+    private static PooledCourier bruteForceNearest(Set<PooledCourier> couriers, double latitude, double longitude) {
+        PooledCourier best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (PooledCourier courier : couriers) {
+            double distance = CourierPool.distanceKm(latitude, longitude, courier.getLatitude(), courier.getLongitude());
+            if (distance < bestDistance) {
+                best = courier;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,105 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.rocketFoodDelivery.rocketFood.index.CourierStatusBoard.Entry;
+
+public class CourierStatusBoardTest {
+    private static final int FREE = 1;
+    private static final int BUSY = 2;
+    private static final int FULL = 3;
+    private static final int OFFLINE = 4;
+
+    private CourierStatusBoard courierStatusBoard;
+
+    @BeforeEach
+    public void setUp() {
+        courierStatusBoard = new CourierStatusBoard();
+        courierStatusBoard.rebuild(List.of(
+            new Entry(1, FREE, "Montreal"),
+            new Entry(2, FREE, "Montreal"),
+            new Entry(3, BUSY, "Laval"),
+            new Entry(4, OFFLINE, null)));
+    }
+
+    @Test
+    public void testRebuild_CountsPerStatusAndCity() {
+        assertEquals(Map.of(FREE, 2L, BUSY, 1L, OFFLINE, 1L), courierStatusBoard.getStatusCounts());
+        assertEquals(Map.of(
+            "Montreal", Map.of(FREE, 2L),
+            "Laval", Map.of(BUSY, 1L),
+            CourierStatusBoard.UNKNOWN_CITY, Map.of(OFFLINE, 1L)), courierStatusBoard.getCityCounts());
+        assertEquals(List.of(1, 2), courierStatusBoard.getCourierIds(FREE));
+    }
+
+    @Test
+    public void testUpdate_MovesCourierBetweenStatusesAndKeepsTheirCity() {
+        courierStatusBoard.update(1, BUSY, null);
+        courierStatusBoard.update(3, FULL, "Laval");
+        courierStatusBoard.update(5, FREE, "Laval");
+        courierStatusBoard.update(2, FREE, "Montreal");
+
+        assertEquals(Map.of(FREE, 2L, BUSY, 1L, FULL, 1L, OFFLINE, 1L), courierStatusBoard.getStatusCounts());
+        assertEquals(Map.of(FREE, 1L, BUSY, 1L), courierStatusBoard.getCityCounts().get("Montreal"));
+        assertEquals(Map.of(FREE, 1L, FULL, 1L), courierStatusBoard.getCityCounts().get("Laval"));
+        assertEquals(List.of(2, 5), courierStatusBoard.getCourierIds(FREE));
+        assertEquals(List.of(1), courierStatusBoard.getCourierIds(BUSY));
+        assertEquals(5, courierStatusBoard.size());
+    }
+
+    @Test
+    public void testUpdate_ConcurrentFlipsKeepCountsConsistent() throws Exception {
+        int courierCount = 2_000;
+        List<Entry> entries = new ArrayList<>();
+        for (int id = 1; id <= courierCount; id++) {
+            entries.add(new Entry(id, FREE, id % 2 == 0 ? "Montreal" : "Laval"));
+        }
+        courierStatusBoard.rebuild(entries);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            Random random = new Random(thread);
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int flip = 0; flip < 50_000; flip++) {
+                    courierStatusBoard.update(random.nextInt(courierCount) + 1, random.nextInt(4) + 1, null);
+                    if (flip % 1_000 == 0) {
+                        courierStatusBoard.getStatusCounts();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        long total = courierStatusBoard.getStatusCounts().values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(courierCount, total);
+        for (int status = FREE; status <= OFFLINE; status++) {
+            assertEquals((long) courierStatusBoard.getCourierIds(status).size(),
+                courierStatusBoard.getStatusCounts().getOrDefault(status, 0L));
+        }
+        long montreal = courierStatusBoard.getCityCounts().get("Montreal").values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(courierCount / 2, montreal);
+        assertTrue(courierStatusBoard.getCityCounts().keySet().containsAll(List.of("Montreal", "Laval")));
+    }
+}
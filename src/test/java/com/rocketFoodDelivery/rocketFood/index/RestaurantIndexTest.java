@@ -0,0 +1,93 @@
+package com.rocketFoodDelivery.rocketFood.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiRestaurantDTO;
+import com.rocketFoodDelivery.rocketFood.index.RestaurantIndex.IndexedRestaurant;
+
+public class RestaurantIndexTest {
+
+    private RestaurantIndex restaurantIndex;
+
+    @BeforeEach
+    public void setUp() {
+        restaurantIndex = new RestaurantIndex();
+        restaurantIndex.rebuild(List.of(
+            new IndexedRestaurant(1, "Pizza", 1, 9, 2),
+            new IndexedRestaurant(2, "Sushi", 3, 20, 4),
+            new IndexedRestaurant(3, "Tacos", 1, 0, 0),
+            new IndexedRestaurant(4, "Burgers", 1, 14, 3)));
+    }
+
+    @Test
+    public void testFind_FiltersByRatingAndPriceRange() {
+        assertEquals(List.of(1, 4), ids(restaurantIndex.find(5, 1)));
+        assertEquals(List.of(1, 2, 4), ids(restaurantIndex.find(5, null)));
+        assertEquals(List.of(1, 3, 4), ids(restaurantIndex.find(null, 1)));
+        assertEquals(List.of(1, 2, 3, 4), ids(restaurantIndex.find(null, null)));
+        assertEquals(0, restaurantIndex.find(0, 1).get(0).getRating());
+    }
+
+    @Test
+    public void testRating_IsTheExactCeilingOfTheAverage() {
+        restaurantIndex.upsert(5, "Ramen", 2);
+        restaurantIndex.applyRatingDelta(5, 60001, 30000);
+
+        assertEquals(3, restaurantIndex.get(5).getRating());
+        assertEquals(List.of(5), ids(restaurantIndex.find(3, 2)));
+        assertEquals(5, restaurantIndex.get(4).getRating());
+        assertEquals(0, restaurantIndex.get(3).getRating());
+    }
+
+    @Test
+    public void testUpdates_MoveRestaurantsBetweenBuckets() {
+        restaurantIndex.applyRatingDelta(3, 2, 1);
+        restaurantIndex.upsert(2, "Sushi Bar", 1);
+        restaurantIndex.delete(4);
+
+        assertEquals(List.of(3), ids(restaurantIndex.find(2, 1)));
+        assertEquals(List.of(1, 2), ids(restaurantIndex.find(5, 1)));
+        assertEquals("Sushi Bar", restaurantIndex.get(2).getName());
+        assertEquals(20, restaurantIndex.get(2).getRatingSum());
+    }
+
+    @Test
+    public void testFindTopRated_OrdersByAverageThenOrderCount() {
+        assertEquals(List.of(4, 1, 3), ids(restaurantIndex.findTopRated(1, 10)));
+        assertEquals(List.of(4), ids(restaurantIndex.findTopRated(1, 1)));
+        assertTrue(restaurantIndex.findTopRated(2, 10).isEmpty());
+
+        restaurantIndex.applyRatingDelta(1, 1, 0);
+        restaurantIndex.applyRatingDelta(3, 5, 1);
+        restaurantIndex.delete(4);
+
+        assertEquals(List.of(1, 3), ids(restaurantIndex.findTopRated(1, 10)));
+    }
+
+    @Test
+    public void testFindMismatches_ReportsDriftFromDatabase() {
+        restaurantIndex.applyRatingDelta(1, 1, 0);
+        List<IndexedRestaurant> database = List.of(
+            new IndexedRestaurant(1, "Pizza", 1, 9, 2),
+            new IndexedRestaurant(2, "Sushi", 3, 20, 4),
+            new IndexedRestaurant(3, "Tacos", 1, 0, 0),
+            new IndexedRestaurant(5, "Noodles", 2, 0, 0));
+
+        List<String> mismatches = restaurantIndex.findMismatches(database);
+
+        assertEquals(3, mismatches.size());
+        restaurantIndex.rebuild(database);
+        assertTrue(restaurantIndex.findMismatches(database).isEmpty());
+    }
+
+    private static List<Integer> ids(List<ApiRestaurantDTO> restaurants) {
+        return restaurants.stream().map(ApiRestaurantDTO::getId).collect(Collectors.toList());
+    }
+}
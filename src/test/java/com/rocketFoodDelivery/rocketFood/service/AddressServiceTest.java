@@ -0,0 +1,87 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.OrderCache;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderDTO;
+import com.rocketFoodDelivery.rocketFood.models.Address;
+import com.rocketFoodDelivery.rocketFood.repository.AddressRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderViewRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class AddressServiceTest {
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
+    private OrderCache orderCache;
+    private ChangeVersionTracker changeVersionTracker;
+    private AddressService addressService;
+
+    @BeforeEach
+    public void setUp() {
+        orderCache = new OrderCache(100);
+        changeVersionTracker = new ChangeVersionTracker();
+        addressService = new AddressService(addressRepository, orderViewRepository, orderCache, changeVersionTracker);
+    }
+
+    @Test
+    public void testSaveAddress_ChangingAnAddressRefreshesTheOrderViewsOfItsCustomersAndRestaurants() {
+        Address moved = address(4, "1 New Street", "Laval", "H7A 1A1");
+        when(addressRepository.existsById(4)).thenReturn(true);
+        when(addressRepository.saveAndFlush(moved)).thenReturn(moved);
+        List<Object[]> owners = new ArrayList<>();
+        owners.add(new Object[] {10, 5, 1, null});
+        owners.add(new Object[] {11, 5, 2, 7});
+        when(orderViewRepository.findOrderOwnersByAddressId(4)).thenReturn(owners);
+        orderCache.put(10, order(10));
+        orderCache.put(12, order(12));
+
+        addressService.saveAddress(moved);
+
+        verify(orderViewRepository).updateOrderViewCustomerAddress(4);
+        verify(orderViewRepository).updateOrderViewRestaurantAddress(4);
+        assertNull(orderCache.get(10));
+        assertEquals(12, orderCache.get(12).getId());
+        assertEquals(2, changeVersionTracker.current(ChangeVersionTracker.ordersOf("customer", 5)));
+        assertEquals(1, changeVersionTracker.current(ChangeVersionTracker.ordersOf("restaurant", 2)));
+        assertEquals(1, changeVersionTracker.current(ChangeVersionTracker.ordersOf("courier", 7)));
+    }
+
+    @Test
+    public void testSaveAddress_NewAddressLeavesOrderViewsAlone() {
+        Address created = address(0, "2 Other Street", "Montreal", "H2X 1Y4");
+        when(addressRepository.saveAndFlush(created)).thenReturn(address(9, "2 Other Street", "Montreal", "H2X 1Y4"));
+
+        assertEquals(9, addressService.saveAddress(created).getId());
+        verify(addressRepository, never()).existsById(anyInt());
+        verifyNoInteractions(orderViewRepository);
+    }
+
+    private static Address address(int id, String streetAddress, String city, String postalCode) {
+        return Address.builder().id(id).streetAddress(streetAddress).city(city).postalCode(postalCode).build();
+    }
+
+    private static ApiOrderDTO order(int id) {
+        ApiOrderDTO order = new ApiOrderDTO();
+        order.setId(id);
+        order.setProducts(List.of());
+        return order;
+    }
+}
@@ -0,0 +1,77 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
+import com.rocketFoodDelivery.rocketFood.index.CourierPool;
+import com.rocketFoodDelivery.rocketFood.index.CourierStatusBoard;
+import com.rocketFoodDelivery.rocketFood.models.CourierStatus;
+import com.rocketFoodDelivery.rocketFood.models.OrderStatus;
+import com.rocketFoodDelivery.rocketFood.repository.CourierJdbcRepository;
+import com.rocketFoodDelivery.rocketFood.repository.CourierRepository;
+import com.rocketFoodDelivery.rocketFood.repository.CourierStatusRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderStatusRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class CourierServiceTest {
+
+    @Mock
+    private CourierRepository courierRepository;
+
+    @Mock
+    private CourierJdbcRepository courierJdbcRepository;
+
+    private CourierPool courierPool;
+    private CourierStatusBoard courierStatusBoard;
+    private CourierService courierService;
+
+    @BeforeEach
+    public void setUp() {
+        OrderStatusRepository orderStatusRepository = mock(OrderStatusRepository.class);
+        lenient().when(orderStatusRepository.findAll()).thenReturn(List.of(
+            new OrderStatus(1, "pending"), new OrderStatus(2, "in progress"), new OrderStatus(3, "delivered"),
+            new OrderStatus(4, "cancelled")));
+        CourierStatusRepository courierStatusRepository = mock(CourierStatusRepository.class);
+        lenient().when(courierStatusRepository.findAll()).thenReturn(List.of(
+            new CourierStatus(1, "free"), new CourierStatus(2, "busy")));
+        courierPool = new CourierPool();
+        courierStatusBoard = new CourierStatusBoard();
+        courierStatusBoard.rebuild(List.of(
+            new CourierStatusBoard.Entry(7, 2, "Montreal"), new CourierStatusBoard.Entry(9, 2, "Laval")));
+        courierService = new CourierService(courierRepository, courierJdbcRepository,
+            new ReferenceDataRegistry(orderStatusRepository, courierStatusRepository), courierPool, courierStatusBoard);
+    }
+
+    @Test
+    public void testReleaseCouriersOfFinishedOrders_ReturnsIdleCouriersToThePool() {
+        // Courier 9 still carries another order in progress
+        when(courierJdbcRepository.releaseIdleCouriers(List.of(7, 9), 2, 1, List.of(3, 4))).thenReturn(new int[] { 1, 0 });
+        when(courierJdbcRepository.findActiveCourierLocations(List.of(7)))
+            .thenReturn(List.<Object[]>of(new Object[] { 7, 45.5017, -73.5673, "Montreal" }));
+
+        assertEquals(List.of(7), courierService.releaseCouriersOfFinishedOrders(List.of(7, 9)));
+
+        assertTrue(courierPool.contains(7));
+        assertFalse(courierPool.contains(9));
+        assertEquals(List.of(7), courierStatusBoard.getCourierIds(1));
+        assertEquals(List.of(9), courierStatusBoard.getCourierIds(2));
+    }
+
+    @Test
+    public void testReleaseCouriersOfFinishedOrders_NothingToRelease() {
+        assertEquals(List.of(), courierService.releaseCouriersOfFinishedOrders(List.of()));
+
+        verifyNoInteractions(courierJdbcRepository);
+    }
+}
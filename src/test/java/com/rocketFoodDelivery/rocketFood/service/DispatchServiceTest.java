@@ -0,0 +1,127 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
+import com.rocketFoodDelivery.rocketFood.index.CourierPool;
+import com.rocketFoodDelivery.rocketFood.index.CourierPool.PooledCourier;
+import com.rocketFoodDelivery.rocketFood.repository.OrderJdbcRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class DispatchServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private CourierService courierService;
+
+    @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Mock
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CourierPool courierPool;
+    private DispatchService dispatchService;
+
+    @BeforeEach
+    public void setUp() {
+        courierPool = new CourierPool();
+        courierPool.rebuild(List.of(
+            new PooledCourier(1, 45.5010, -73.5670, "Montreal"),
+            new PooledCourier(2, 45.5300, -73.6000, "Montreal"),
+            new PooledCourier(3, 45.5600, -73.6500, "Montreal")));
+        dispatchService = new DispatchService(orderService, courierService, orderJdbcRepository,
+            referenceDataRegistry, courierPool, transactionTemplate, false, 500, 200, 10);
+
+        when(referenceDataRegistry.orderStatusId("pending")).thenReturn(1);
+        lenient().when(orderJdbcRepository.findUnassignedOrders(1, 0, 200)).thenReturn(List.of(
+            new Object[] { 10, 45.5017, -73.5673, "Montreal" },
+            new Object[] { 11, 45.5290, -73.5990, "Montreal" },
+            new Object[] { 12, 45.5590, -73.6490, "Montreal" }));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDispatch_WritesTheRoundAsOneBatchAndReleasesUnusedCouriers() {
+        runTransactionsInline();
+        // Courier 2 went offline meanwhile, and order 12 was cancelled meanwhile
+        when(courierService.claimCouriers(List.of(1, 2, 3))).thenReturn(Set.of(1, 3));
+        when(orderService.assignCouriers(anyList())).thenReturn(List.<int[]>of(new int[] { 10, 1 }));
+
+        assertEquals(1, dispatchService.dispatchPendingOrders());
+
+        ArgumentCaptor<List<int[]>> assignments = ArgumentCaptor.forClass(List.class);
+        verify(orderService, times(1)).assignCouriers(assignments.capture());
+        assertEquals(List.of("10->1", "12->3"), assignments.getValue().stream()
+            .map(assignment -> assignment[0] + "->" + assignment[1]).collect(Collectors.toList()));
+
+        ArgumentCaptor<List<PooledCourier>> released = ArgumentCaptor.forClass(List.class);
+        verify(courierService).releaseCouriers(released.capture());
+        assertEquals(List.of(3), released.getValue().stream().map(PooledCourier::getId).collect(Collectors.toList()));
+        assertEquals(0, courierPool.size());
+    }
+
+    @Test
+    public void testDispatch_ReturnsCouriersToThePoolWhenTheRoundFails() {
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("Deadlock"));
+
+        assertThrows(IllegalStateException.class, () -> dispatchService.dispatchPendingOrders());
+
+        assertEquals(3, courierPool.size());
+        assertTrue(courierPool.contains(2));
+        verify(orderService, never()).assignCouriers(anyList());
+    }
+
+    @Test
+    public void testDispatch_UnmatchedOrdersDoNotHoldBackNewerOnes() {
+        runTransactionsInline();
+        dispatchService = new DispatchService(orderService, courierService, orderJdbcRepository,
+            referenceDataRegistry, courierPool, transactionTemplate, false, 500, 3, 10);
+        // The three oldest orders are from a restaurant no courier can reach
+        when(orderJdbcRepository.findUnassignedOrders(1, 0, 3)).thenReturn(List.of(
+            new Object[] { 10, 46.8139, -71.2080, "Quebec" },
+            new Object[] { 11, 46.8139, -71.2080, "Quebec" },
+            new Object[] { 12, 46.8139, -71.2080, "Quebec" }));
+        when(orderJdbcRepository.findUnassignedOrders(1, 12, 3)).thenReturn(List.<Object[]>of(
+            new Object[] { 13, 45.5017, -73.5673, "Montreal" }));
+        when(courierService.claimCouriers(List.of(1))).thenReturn(Set.of(1));
+        when(orderService.assignCouriers(anyList())).thenReturn(List.<int[]>of(new int[] { 13, 1 }));
+
+        assertEquals(0, dispatchService.dispatchPendingOrders());
+        assertEquals(1, dispatchService.dispatchPendingOrders());
+        // The newest pending order was reached, so the next round starts over from the oldest
+        dispatchService.dispatchPendingOrders();
+
+        verify(orderJdbcRepository, times(2)).findUnassignedOrders(1, 0, 3);
+        verify(orderJdbcRepository).findUnassignedOrders(1, 12, 3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+}
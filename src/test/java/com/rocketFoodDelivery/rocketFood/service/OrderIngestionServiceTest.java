@@ -0,0 +1,88 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiBatchOrderResultDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateOrderDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiIngestionMetricsDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiIngestionStatusDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderDTO;
+import com.rocketFoodDelivery.rocketFood.exception.TooManyRequestsException;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderIngestionServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderIngestionService orderIngestionService;
+
+    @BeforeEach
+    public void setUp() {
+        // The writer thread is never started, batches are written explicitly
+        orderIngestionService = new OrderIngestionService(orderService, true, 2, 200, 0, 3600);
+    }
+
+    @Test
+    public void testWriteBatch_CommitsQueuedOrdersTogether() {
+        ApiOrderDTO created = new ApiOrderDTO();
+        created.setId(7);
+        when(orderService.createOrders(anyList())).thenReturn(List.of(
+            ApiBatchOrderResultDTO.created(0, created),
+            ApiBatchOrderResultDTO.failed(1, ApiBatchOrderResultDTO.NOT_FOUND, "Product with id 9 not found")));
+
+        OrderIngestionService.Ticket first = orderIngestionService.submit(new ApiCreateOrderDTO());
+        OrderIngestionService.Ticket second = orderIngestionService.submit(new ApiCreateOrderDTO());
+        assertEquals(ApiIngestionStatusDTO.QUEUED, orderIngestionService.getStatus(first.getId()).getStatus());
+
+        orderIngestionService.writeBatch(List.of(first, second));
+
+        verify(orderService, times(1)).createOrders(anyList());
+        ApiIngestionStatusDTO firstStatus = orderIngestionService.getStatus(first.getId());
+        assertEquals(ApiBatchOrderResultDTO.CREATED, firstStatus.getStatus());
+        assertEquals(7, firstStatus.getOrderId());
+        ApiIngestionStatusDTO secondStatus = orderIngestionService.getStatus(second.getId());
+        assertEquals(ApiBatchOrderResultDTO.FAILED, secondStatus.getStatus());
+        assertEquals("Product with id 9 not found", secondStatus.getError());
+
+        ApiIngestionMetricsDTO metrics = orderIngestionService.getMetrics();
+        assertEquals(1, metrics.getBatches());
+        assertEquals(2, metrics.getOrdersProcessed());
+        assertEquals(2, metrics.getMaxBatchSize());
+    }
+
+    @Test
+    public void testWriteBatch_FailedCommitFailsEveryTicket() {
+        when(orderService.createOrders(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        OrderIngestionService.Ticket ticket = orderIngestionService.submit(new ApiCreateOrderDTO());
+        orderIngestionService.writeBatch(List.of(ticket));
+
+        ApiBatchOrderResultDTO result = orderIngestionService.awaitResult(ticket);
+        assertEquals(ApiBatchOrderResultDTO.FAILED, result.getStatus());
+        assertEquals(ApiBatchOrderResultDTO.ERROR, result.getReason());
+    }
+
+    @Test
+    public void testSubmit_FullQueueIsRejected() {
+        orderIngestionService.submit(new ApiCreateOrderDTO());
+        orderIngestionService.submit(new ApiCreateOrderDTO());
+
+        assertThrows(TooManyRequestsException.class, () -> orderIngestionService.submit(new ApiCreateOrderDTO()));
+        assertEquals(1, orderIngestionService.getMetrics().getRejected());
+        assertEquals(2, orderIngestionService.getMetrics().getQueueDepth());
+        assertNull(orderIngestionService.getStatus("unknown"));
+    }
+}
@@ -0,0 +1,521 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.OrderCache;
+import com.rocketFoodDelivery.rocketFood.cache.ReferenceDataRegistry;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiBatchOrderResultDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateOrderDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderEventDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderHistoryEntryDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderPageDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderStatusDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiOrderStatusResultDTO;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiProductForOrderApiDTO;
+import com.rocketFoodDelivery.rocketFood.exception.ConflictException;
+import com.rocketFoodDelivery.rocketFood.exception.InvalidStatusTransitionException;
+import com.rocketFoodDelivery.rocketFood.exception.ResourceNotFoundException;
+import com.rocketFoodDelivery.rocketFood.exception.ValidationException;
+import com.rocketFoodDelivery.rocketFood.events.OrderEventDispatcher;
+import com.rocketFoodDelivery.rocketFood.events.OrderEventLog;
+import com.rocketFoodDelivery.rocketFood.events.OrderEventRecord;
+import com.rocketFoodDelivery.rocketFood.events.OrderHistoryProjection;
+import com.rocketFoodDelivery.rocketFood.index.RestaurantIndex;
+import com.rocketFoodDelivery.rocketFood.models.Customer;
+import com.rocketFoodDelivery.rocketFood.models.Order;
+import com.rocketFoodDelivery.rocketFood.models.OrderStatus;
+import com.rocketFoodDelivery.rocketFood.models.Restaurant;
+import com.rocketFoodDelivery.rocketFood.repository.CourierStatusRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderJdbcRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderStatusRepository;
+import com.rocketFoodDelivery.rocketFood.repository.OrderViewRepository;
+import com.rocketFoodDelivery.rocketFood.repository.RestaurantRepository;
+import com.rocketFoodDelivery.rocketFood.util.OrderCursor;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceTest {
+
+    private static final String PRODUCTS_JSON =
+        "[{\"product_id\": 2, \"product_quantity\": 1, \"unit_cost\": 500, \"total_cost\": 500},"
+        + " {\"product_id\": 3, \"product_quantity\": 4, \"unit_cost\": 500, \"total_cost\": 2000}]";
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Spy
+    private ReferenceDataRegistry referenceDataRegistry = referenceData(
+        new OrderStatus(1, "pending"), new OrderStatus(2, "in progress"), new OrderStatus(3, "delivered"));
+
+    @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+
+    @Mock
+    private OrderViewRepository orderViewRepository;
+
+    @Spy
+    private OrderCache orderCache = new OrderCache(100);
+
+    @Spy
+    private ChangeVersionTracker changeVersionTracker = new ChangeVersionTracker();
+
+    @Spy
+    private RestaurantIndex restaurantIndex = new RestaurantIndex();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+    @Mock
+    private OrderEventDispatcher orderEventDispatcher;
+
+    @Mock
+    private OrderEventLog orderEventLog;
+
+    @Mock
+    private OrderHistoryProjection orderHistoryProjection;
+
+    @Mock
+    private CourierService courierService;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 500, 5000})
+    public void testGetOrdersPageByUserTypeAndId_UsesFixedStatementCount(int orderCount) {
+        when(orderRepository.findOrdersWithDetailsByRestaurantIdAfter(1, 0, orderCount + 1))
+            .thenReturn(orderRows(orderCount));
+
+        ApiOrderPageDTO page = orderService.getOrdersPageByUserTypeAndId("restaurant", 1, 0, orderCount);
+
+        assertEquals(orderCount, page.getOrders().size());
+        assertNull(page.getNextCursor());
+        assertEquals(2, page.getOrders().get(0).getProducts().size());
+        assertEquals(4, page.getOrders().get(0).getProducts().get(1).getProductQuantity());
+        assertEquals(2500, page.getOrders().get(0).getTotalCost());
+        // Product lines are part of the order_views row, so a single statement serves the whole page
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    public void testGetOrdersPageByUserTypeAndId_ReturnsCursorOfLastOrder() {
+        when(orderRepository.findOrdersWithDetailsByRestaurantIdAfter(1, 0, 4)).thenReturn(orderRows(4));
+
+        ApiOrderPageDTO page = orderService.getOrdersPageByUserTypeAndId("restaurant", 1, 0, 3);
+
+        assertEquals(3, page.getOrders().size());
+        assertEquals(3, OrderCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    public void testGetOrdersPageByUserTypeAndId_LastPageHasNoCursor() {
+        when(orderRepository.findOrdersWithDetailsByCustomerIdAfter(5, 3, 4)).thenReturn(orderRows(2));
+
+        ApiOrderPageDTO page = orderService.getOrdersPageByUserTypeAndId("customer", 5, 3, 3);
+
+        assertEquals(2, page.getOrders().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testStreamOrdersByUserTypeAndId_WritesEveryOrder() {
+        int orderCount = 1207;
+        doAnswer(invocation -> {
+            Consumer<Object[]> rowConsumer = invocation.getArgument(2);
+            orderRows(orderCount).forEach(rowConsumer);
+            return null;
+        }).when(orderJdbcRepository).streamOrdersWithDetails(eq("restaurant"), eq(1), any());
+
+        List<ApiOrderDTO> streamed = new ArrayList<>();
+        orderService.streamOrdersByUserTypeAndId("restaurant", 1, streamed::add);
+
+        assertEquals(orderCount, streamed.size());
+        assertEquals(orderCount, streamed.get(orderCount - 1).getId());
+        assertEquals(2, streamed.get(orderCount - 1).getProducts().size());
+    }
+
+    @Test
+    public void testGetOrderById_ServesRepeatedReadsFromCache() {
+        when(orderRepository.findOrdersWithDetailsByOrderId(1)).thenReturn(orderRows(1));
+
+        ApiOrderDTO first = orderService.getOrderById(1);
+        first.setStatus("tampered");
+        first.getProducts().get(0).setProductQuantity(99);
+        ApiOrderDTO second = orderService.getOrderById(1);
+
+        assertNotSame(first, second);
+        assertEquals("pending", second.getStatus());
+        assertEquals(1, second.getProducts().get(0).getProductQuantity());
+        verify(orderRepository, times(1)).findOrdersWithDetailsByOrderId(1);
+        assertEquals(1, orderCache.stats().getHits());
+        assertEquals(1, orderCache.stats().getMisses());
+    }
+
+    @Test
+    public void testGetOrderById_NotFound() {
+        when(orderRepository.findOrdersWithDetailsByOrderId(42)).thenReturn(new ArrayList<>());
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.getOrderById(42));
+        assertEquals(0, orderCache.size());
+    }
+
+    @Test
+    public void testUpdateOrderStatus_InvalidatesCachedOrder() {
+        when(orderRepository.findOrdersWithDetailsByOrderId(1)).thenReturn(orderRows(1));
+        orderService.getOrderById(1);
+        when(orderJdbcRepository.updateOrderStatuses(List.of(1), 3, List.of(2))).thenReturn(new int[] {1});
+        when(orderJdbcRepository.findOrderStatuses(Set.of(1))).thenReturn(List.<Object[]>of(new Object[] {1, 3, 5, 1, null}));
+
+        ApiOrderStatusDTO updated = orderService.updateOrderStatus(1, new ApiOrderStatusDTO("delivered"));
+        orderService.getOrderById(1);
+
+        assertEquals("delivered", updated.getStatus());
+        verify(orderRepository, times(2)).findOrdersWithDetailsByOrderId(1);
+        verify(orderViewRepository, never()).save(any());
+        verify(orderJdbcRepository).updateOrderViewStatuses(List.of(1), "delivered");
+        assertEquals(1, changeVersionTracker.current(ChangeVersionTracker.ordersOf("customer", 5)));
+        assertEquals(1, changeVersionTracker.current(ChangeVersionTracker.ordersOf("restaurant", 1)));
+    }
+
+    @Test
+    public void testUpdateOrderStatus_ConflictLeavesOrderUnchanged() {
+        // Another request delivered the order first: the pending -> in progress transition no longer applies
+        when(orderJdbcRepository.updateOrderStatuses(List.of(1), 2, List.of(1))).thenReturn(new int[] {0});
+        when(orderJdbcRepository.findOrderStatuses(Set.of(1))).thenReturn(List.<Object[]>of(new Object[] {1, 3, 5, 1, 9}));
+
+        ConflictException conflict = assertThrows(ConflictException.class,
+            () -> orderService.updateOrderStatus(1, new ApiOrderStatusDTO("in_progress")));
+
+        assertEquals("Order with id 1 cannot move from delivered to in progress", conflict.getMessage());
+        verify(orderJdbcRepository, never()).updateOrderViewStatuses(anyList(), anyString());
+        verify(orderRepository, never()).findById(anyInt());
+        assertEquals(0, changeVersionTracker.current(ChangeVersionTracker.ordersOf("customer", 5)));
+    }
+
+    @Test
+    public void testUpdateOrderStatus_NotFound() {
+        when(orderJdbcRepository.updateOrderStatuses(List.of(42), 2, List.of(1))).thenReturn(new int[] {0});
+        when(orderJdbcRepository.findOrderStatuses(Set.of(42))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class,
+            () -> orderService.updateOrderStatus(42, new ApiOrderStatusDTO("in progress")));
+    }
+
+    @Test
+    public void testUpdateOrderStatus_AlreadyInStatusPublishesNothing() {
+        when(orderJdbcRepository.updateOrderStatuses(List.of(1), 3, List.of(2))).thenReturn(new int[] {0});
+        when(orderJdbcRepository.findOrderStatuses(Set.of(1))).thenReturn(List.<Object[]>of(new Object[] {1, 3, 5, 1, 9}));
+
+        ApiOrderStatusDTO updated = orderService.updateOrderStatus(1, new ApiOrderStatusDTO("delivered"));
+
+        assertEquals("delivered", updated.getStatus());
+        verify(orderJdbcRepository, never()).updateOrderViewStatuses(anyList(), anyString());
+        verifyNoInteractions(orderEventDispatcher, orderEventLog);
+    }
+
+    @Test
+    public void testUpdateOrderStatuses_OrdersAlreadyInTheStatusAreUnchangedWithoutAnyPriorRead() {
+        // Nothing moves to pending, so the UPDATE changes no row and only the read after it classifies the orders
+        when(orderJdbcRepository.updateOrderStatuses(List.of(1, 2), 1, List.of())).thenReturn(new int[] {0, 0});
+        when(orderJdbcRepository.findOrderStatuses(Set.of(1, 2))).thenReturn(List.of(
+            new Object[] {1, 1, 5, 1, null},
+            new Object[] {2, 2, 5, 1, 9}));
+
+        List<ApiOrderStatusResultDTO> results = orderService.updateOrderStatuses(List.of(2, 1), "pending");
+
+        assertEquals(List.of("conflict", "unchanged"),
+            results.stream().map(ApiOrderStatusResultDTO::getResult).collect(Collectors.toList()));
+        InOrder inOrder = inOrder(orderJdbcRepository);
+        inOrder.verify(orderJdbcRepository).updateOrderStatuses(List.of(1, 2), 1, List.of());
+        inOrder.verify(orderJdbcRepository).findOrderStatuses(Set.of(1, 2));
+        verify(orderJdbcRepository, never()).updateOrderViewStatuses(anyList(), anyString());
+        verifyNoInteractions(orderEventDispatcher, orderEventLog, courierService);
+    }
+
+    @Test
+    public void testUpdateOrderStatuses_DeliveredReleasesTheCouriers() {
+        when(orderJdbcRepository.updateOrderStatuses(List.of(1, 2, 3), 3, List.of(2))).thenReturn(new int[] {1, 1, 1});
+        when(orderJdbcRepository.findOrderStatuses(Set.of(1, 2, 3))).thenReturn(List.<Object[]>of(
+            new Object[] {1, 3, 5, 1, 9}, new Object[] {2, 3, 5, 1, null}, new Object[] {3, 3, 6, 1, 7}));
+
+        orderService.updateOrderStatuses(List.of(1, 2, 3), "delivered");
+
+        verify(courierService).releaseCouriersOfFinishedOrders(List.of(9, 7));
+    }
+
+    @Test
+    public void testUpdateOrderStatuses_InProgressKeepsTheCourier() {
+        when(orderJdbcRepository.updateOrderStatuses(List.of(1), 2, List.of(1))).thenReturn(new int[] {1});
+        when(orderJdbcRepository.findOrderStatuses(Set.of(1))).thenReturn(List.<Object[]>of(new Object[] {1, 2, 5, 1, 9}));
+
+        orderService.updateOrderStatuses(List.of(1), "in progress");
+
+        verifyNoInteractions(courierService);
+    }
+
+    @Test
+    public void testUpdateOrderStatuses_ReportsOutcomePerOrder() {
+        // Order 4 was already in progress; only the batch tells it apart from order 1, which the UPDATE moved
+        when(orderJdbcRepository.updateOrderStatuses(List.of(1, 2, 3, 4), 2, List.of(1))).thenReturn(new int[] {1, 0, 0, 0});
+        when(orderJdbcRepository.findOrderStatuses(Set.of(1, 2, 3, 4))).thenReturn(List.of(
+            new Object[] {1, 2, 5, 1, null},
+            new Object[] {2, 3, 6, 1, 9},
+            new Object[] {4, 2, 7, 1, null}));
+
+        List<ApiOrderStatusResultDTO> results = orderService.updateOrderStatuses(List.of(1, 2, 3, 1, 4), "in_progress");
+
+        assertEquals(List.of(1, 2, 3, 4), results.stream().map(ApiOrderStatusResultDTO::getOrderId).collect(Collectors.toList()));
+        assertEquals(List.of("applied", "conflict", "not_found", "unchanged"),
+            results.stream().map(ApiOrderStatusResultDTO::getResult).collect(Collectors.toList()));
+        assertEquals("delivered", results.get(1).getStatus());
+        // Only the order that moved is projected: update, read, project
+        verify(orderJdbcRepository).updateOrderViewStatuses(List.of(1), "in progress");
+        assertEquals(3, statementCount());
+        assertEquals(0, changeVersionTracker.current(ChangeVersionTracker.ordersOf("customer", 7)));
+        assertEquals(1, changeVersionTracker.current(ChangeVersionTracker.ordersOf("customer", 5)));
+        assertEquals(0, changeVersionTracker.current(ChangeVersionTracker.ordersOf("customer", 6)));
+        verify(orderEventDispatcher).publish(argThat(event -> event.getOrderId() == 1
+            && ApiOrderEventDTO.STATUS.equals(event.getType()) && "in progress".equals(event.getStatus())));
+        verifyNoMoreInteractions(orderEventDispatcher);
+        verify(orderEventLog).append(argThat(record -> record.getOrderId() == 1
+            && record.getType() == OrderEventRecord.STATUS_CHANGED && record.getStatusId() == 2));
+    }
+
+    @Test
+    public void testGetOrderHistory_MapsLoggedEvents() {
+        when(orderHistoryProjection.getHistory(1)).thenReturn(List.of(
+            new OrderEventRecord(0, 1000, OrderEventRecord.CREATED, 1, 5, 1, null, 1),
+            new OrderEventRecord(7, 2000, OrderEventRecord.STATUS_CHANGED, 1, 5, 1, null, 2)));
+
+        List<ApiOrderHistoryEntryDTO> history = orderService.getOrderHistory(1);
+
+        assertEquals(List.of("created", "status"), history.stream().map(ApiOrderHistoryEntryDTO::getType).collect(Collectors.toList()));
+        assertEquals("in progress", history.get(1).getStatus());
+        assertEquals(7, history.get(1).getSequence());
+        assertEquals(0, statementCount());
+    }
+
+    @Test
+    public void testUpdateOrderStatuses_UnknownStatus() {
+        assertThrows(InvalidStatusTransitionException.class, () -> orderService.updateOrderStatuses(List.of(1), "lost"));
+        assertEquals(0, statementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    public void testCreateOrder_UsesFixedStatementCount(int lineCount) {
+        // Validating each product, inserting each line separately and re-reading the order took 2 * lineCount + 7 statements
+        List<ApiCreateOrderDTO.ProductOrder> lines = new ArrayList<>();
+        List<Object[]> products = new ArrayList<>();
+        for (int productId = 1; productId <= lineCount; productId++) {
+            lines.add(new ApiCreateOrderDTO.ProductOrder(productId, 2));
+            products.add(new Object[] {productId, 1, 500});
+        }
+        stubOrderContext();
+        when(orderJdbcRepository.findProductsForOrder(anyList())).thenReturn(products);
+        when(orderJdbcRepository.insertOrder(5, 1, 1, 1000L * lineCount)).thenReturn(1);
+
+        ApiOrderDTO order = orderService.createOrder(new ApiCreateOrderDTO(1, 5, lines));
+
+        assertEquals(1, order.getId());
+        assertEquals(1000L * lineCount, order.getTotalCost());
+        assertEquals(6, statementCount());
+        // Each line is written with the unit cost it was priced at
+        verify(orderJdbcRepository).insertProductOrders(argThat(batch -> batch.size() == lineCount
+            && batch.get(0)[0] == 1 && batch.get(0)[2] == 2 && batch.get(0)[3] == 500));
+    }
+
+    @Test
+    public void testCreateOrder_ResponseMatchesReRead() throws Exception {
+        stubOrderContext();
+        when(orderJdbcRepository.findProductsForOrder(List.of(2, 3)))
+            .thenReturn(List.of(new Object[] {2, 1, 500}, new Object[] {3, 1, 500}));
+        when(orderJdbcRepository.insertOrder(5, 1, 1, 2500L)).thenReturn(1);
+        // Keep the order_views row createOrder writes; its columns are the ones findOrdersWithDetailsByOrderId selects
+        List<Object[]> written = new ArrayList<>();
+        doAnswer(invocation -> written.add(invocation.getArguments()))
+            .when(orderViewRepository).insertOrderView(anyInt(), anyInt(), anyInt(), any(), anyString(), anyString(),
+                anyString(), anyString(), anyString(), anyLong());
+        when(orderRepository.findOrdersWithDetailsByOrderId(1)).thenAnswer(invocation -> written);
+
+        ApiOrderDTO created = orderService.createOrder(new ApiCreateOrderDTO(1, 5,
+            List.of(new ApiCreateOrderDTO.ProductOrder(2, 1), new ApiCreateOrderDTO.ProductOrder(3, 4))));
+        orderCache.invalidateAll();
+        ApiOrderDTO reRead = orderService.getOrderById(1);
+
+        // Built from the inputs alone: the stored unit costs, the requested quantities and the order context
+        ApiOrderDTO expected = new ApiOrderDTO(1, 5, "7757 Darwin Causeway, Gerlachfort, 19822", 1, "Fast Pub",
+            "5398 Quigley Harbor, North Lynelle, 60808", null, "pending",
+            List.of(new ApiProductForOrderApiDTO(2, 1, 500, 500), new ApiProductForOrderApiDTO(3, 4, 500, 2000)),
+            2500L);
+        assertEquals(1, written.size());
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(created));
+        assertEquals(objectMapper.writeValueAsString(expected), objectMapper.writeValueAsString(reRead));
+    }
+
+    @Test
+    public void testCreateOrder_RejectsProductOfAnotherRestaurant() {
+        stubOrderContext();
+        when(orderJdbcRepository.findProductsForOrder(List.of(2, 3)))
+            .thenReturn(List.of(new Object[] {2, 1, 500}, new Object[] {3, 2, 500}));
+
+        assertThrows(ValidationException.class, () -> orderService.createOrder(new ApiCreateOrderDTO(1, 5,
+            List.of(new ApiCreateOrderDTO.ProductOrder(2, 1), new ApiCreateOrderDTO.ProductOrder(3, 4)))));
+        verify(orderJdbcRepository, never()).insertOrder(anyInt(), anyInt(), anyInt(), anyLong());
+    }
+
+    @Test
+    public void testCreateOrder_UnknownProduct() {
+        stubOrderContext();
+        when(orderJdbcRepository.findProductsForOrder(List.of(2))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(
+            new ApiCreateOrderDTO(1, 5, List.of(new ApiCreateOrderDTO.ProductOrder(2, 1)))));
+    }
+
+    @Test
+    public void testRateOrder_AppliesTheDeltaFromTheLockedRating() {
+        when(orderRepository.findRestaurantRatingByOrderIdForUpdate(1)).thenReturn(List.<Object[]>of(new Object[] {3, 2}));
+
+        assertEquals(5, orderService.rateOrder(1, 5).getRestaurant_rating());
+
+        verify(orderRepository).updateRestaurantRating(1, 5);
+        verify(restaurantRepository).applyRatingDelta(3, 3, 0);
+    }
+
+    @Test
+    public void testCreateOrders_ValidatesWholeBatchAndKeepsGoodOrders() {
+        when(orderJdbcRepository.findCustomerAddresses(any())).thenReturn(Map.of(5, "7757 Darwin Causeway"));
+        when(orderJdbcRepository.findRestaurantNamesAndAddresses(any()))
+            .thenReturn(Map.of(1, new String[] {"Fast Pub", "5398 Quigley Harbor"}));
+        when(orderJdbcRepository.findProductsForOrder(List.of(2, 3)))
+            .thenReturn(List.of(new Object[] {2, 1, 500}, new Object[] {3, 1, 500}));
+        when(orderJdbcRepository.insertOrders(anyList(), eq(1))).thenReturn(new int[] {10, 11});
+
+        List<ApiBatchOrderResultDTO> results = orderService.createOrders(List.of(
+            new ApiCreateOrderDTO(1, 5, List.of(new ApiCreateOrderDTO.ProductOrder(2, 1))),
+            new ApiCreateOrderDTO(1, 6, List.of(new ApiCreateOrderDTO.ProductOrder(2, 1))),
+            new ApiCreateOrderDTO(1, 5, List.of(new ApiCreateOrderDTO.ProductOrder(3, 2)))));
+
+        assertEquals(List.of("created", "failed", "created"),
+            results.stream().map(ApiBatchOrderResultDTO::getStatus).collect(Collectors.toList()));
+        assertEquals(10, results.get(0).getOrder().getId());
+        assertEquals(1000L, results.get(2).getOrder().getTotalCost());
+        assertEquals("Customer with id 6 not found", results.get(1).getError());
+        assertEquals(ApiBatchOrderResultDTO.NOT_FOUND, results.get(1).getReason());
+        verify(restaurantRepository).applyRatingDelta(1, 0, 2);
+        verify(orderJdbcRepository).insertOrders(argThat(rows -> rows.size() == 2 && rows.get(1)[2] == 1000L), eq(1));
+        verify(orderJdbcRepository).insertProductOrders(argThat(lines -> lines.size() == 2));
+        assertEquals(7, statementCount());
+        assertEquals(2, orderCache.size());
+    }
+
+    @Test
+    public void testCreateOrders_FallsBackToSingleOrdersWhenBatchFails() {
+        when(orderJdbcRepository.findCustomerAddresses(any())).thenReturn(Map.of(5, "7757 Darwin Causeway"));
+        when(orderJdbcRepository.findRestaurantNamesAndAddresses(any()))
+            .thenReturn(Map.of(1, new String[] {"Fast Pub", "5398 Quigley Harbor"}));
+        when(orderJdbcRepository.findProductsForOrder(anyList())).thenReturn(List.<Object[]>of(new Object[] {2, 1, 500}));
+        when(orderJdbcRepository.insertOrders(anyList(), eq(1))).thenThrow(new DataIntegrityViolationException("duplicate"));
+        stubOrderContext();
+        when(orderJdbcRepository.insertOrder(eq(5), eq(1), eq(1), anyLong())).thenReturn(20);
+        doNothing().doThrow(new DataIntegrityViolationException("duplicate"))
+            .when(orderJdbcRepository).insertProductOrders(anyList());
+
+        List<ApiBatchOrderResultDTO> results = orderService.createOrders(List.of(
+            new ApiCreateOrderDTO(1, 5, List.of(new ApiCreateOrderDTO.ProductOrder(2, 1))),
+            new ApiCreateOrderDTO(1, 5, List.of(new ApiCreateOrderDTO.ProductOrder(2, 1),
+                new ApiCreateOrderDTO.ProductOrder(2, 3)))));
+
+        assertEquals("created", results.get(0).getStatus());
+        assertEquals(20, results.get(0).getOrder().getId());
+        assertEquals("failed", results.get(1).getStatus());
+        assertEquals(ApiBatchOrderResultDTO.INVALID, results.get(1).getReason());
+        assertEquals(1, orderCache.size());
+    }
+
+    private void stubOrderContext() {
+        when(orderJdbcRepository.findOrderContext(5, 1)).thenReturn(new Object[] {5,
+            "7757 Darwin Causeway, Gerlachfort, 19822", 1, "Fast Pub", "5398 Quigley Harbor, North Lynelle, 60808"});
+    }
+
+    // Status tables as they are seeded; their reads are not counted as statements since they happen once per instance
+    private static ReferenceDataRegistry referenceData(OrderStatus... orderStatuses) {
+        OrderStatusRepository orderStatusRepository = mock(OrderStatusRepository.class);
+        when(orderStatusRepository.findAll()).thenReturn(List.of(orderStatuses));
+        return new ReferenceDataRegistry(orderStatusRepository, mock(CourierStatusRepository.class));
+    }
+
+    private int statementCount() {
+        return mockingDetails(orderRepository).getInvocations().size()
+            + mockingDetails(restaurantRepository).getInvocations().size()
+            + mockingDetails(orderJdbcRepository).getInvocations().size()
+            + mockingDetails(orderViewRepository).getInvocations().size();
+    }
+
+    // Runs transaction callbacks and their synchronizations without a database
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private static List<Object[]> orderRows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            rows.add(new Object[] {id, 5, 1, null, "7757 Darwin Causeway, Gerlachfort, 19822",
+                "Fast Pub", "5398 Quigley Harbor, North Lynelle, 60808", "pending", PRODUCTS_JSON, 2500L});
+        }
+        return rows;
+    }
+}
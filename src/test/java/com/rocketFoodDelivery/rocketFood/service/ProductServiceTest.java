@@ -0,0 +1,117 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rocketFoodDelivery.rocketFood.cache.ChangeVersionTracker;
+import com.rocketFoodDelivery.rocketFood.cache.MenuCache;
+import com.rocketFoodDelivery.rocketFood.dtos.ApiBulkImportDTO;
+import com.rocketFoodDelivery.rocketFood.exception.BadRequestException;
+import com.rocketFoodDelivery.rocketFood.models.Product;
+import com.rocketFoodDelivery.rocketFood.repository.ProductJdbcRepository;
+import com.rocketFoodDelivery.rocketFood.repository.ProductRepository;
+import com.rocketFoodDelivery.rocketFood.repository.RestaurantRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private SearchService searchService;
+
+    @Spy
+    private ChangeVersionTracker changeVersionTracker = new ChangeVersionTracker();
+
+    @Spy
+    private MenuCache menuCache = new MenuCache(100, 600);
+
+    @InjectMocks
+    private ProductService productService;
+
+    @Test
+    public void testGetMenu_ServesRepeatedReadsFromCache() {
+        when(productRepository.findByRestaurantId(1)).thenReturn(List.of(product(1, "Fries", 300)));
+
+        MenuCache.Menu first = productService.getMenu(1);
+        first.getProducts().get(0).setName("Tampered");
+        MenuCache.Menu second = productService.getMenu(1);
+
+        assertNotSame(first, second);
+        assertEquals("Fries", second.getProducts().get(0).getName());
+        verify(productRepository, times(1)).findByRestaurantId(1);
+    }
+
+    @Test
+    public void testAddProduct_InvalidatesMenuAndBumpsVersion() {
+        when(productRepository.findByRestaurantId(1))
+            .thenReturn(List.of(product(1, "Fries", 300)))
+            .thenReturn(List.of(product(1, "Fries", 300), product(2, "Shake", 450)));
+
+        MenuCache.Menu before = productService.getMenu(1);
+        productService.addProduct("Shake", "Vanilla", 450, 1);
+        MenuCache.Menu after = productService.getMenu(1);
+
+        assertEquals(0, before.getVersion());
+        assertEquals(1, after.getVersion());
+        assertEquals(2, after.getProducts().size());
+        verify(productRepository, times(2)).findByRestaurantId(1);
+    }
+
+    @Test
+    public void testImportProducts_WritesInBatches() {
+        when(restaurantRepository.existsById(1)).thenReturn(true);
+
+        ApiBulkImportDTO result = productService.importProducts(1, productsJson(2500));
+
+        assertEquals(2500, result.getImported());
+        verify(productJdbcRepository, times(3)).insertProducts(eq(1), anyList());
+        verify(productRepository, never()).addProduct(any(), any(), anyDouble(), anyInt());
+        assertEquals(1, changeVersionTracker.current(ChangeVersionTracker.menuOf(1)));
+        verify(searchService).reindexProductsOfRestaurant(1);
+    }
+
+    @Test
+    public void testImportProducts_RejectsInvalidProduct() {
+        when(restaurantRepository.existsById(1)).thenReturn(true);
+        String json = "[{\"name\": \"Fries\", \"cost\": 300}, {\"name\": \"\", \"cost\": 100}]";
+
+        assertThrows(BadRequestException.class, () -> productService.importProducts(1,
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static ByteArrayInputStream productsJson(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"name\": \"Dish ").append(i).append("\", \"description\": \"Tasty\", \"cost\": 500}");
+        }
+        return new ByteArrayInputStream(json.append("]").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Product product(int id, String name, int cost) {
+        return Product.builder().id(id).name(name).cost(cost).build();
+    }
+}
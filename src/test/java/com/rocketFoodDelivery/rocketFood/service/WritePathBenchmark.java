@@ -0,0 +1,126 @@
+package com.rocketFoodDelivery.rocketFood.service;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.rocketFoodDelivery.rocketFood.dtos.ApiCreateOrderDTO;
+
+/**
+ * Throughput and statement counts of the order and product write paths, measured against the database configured
+ * in application.properties (MySQL). Not part of the regular test run (surefire only picks up *Test classes);
+ * run it against a disposable, otherwise idle database with:
+ *
+ *     mvn test -Dtest=WritePathBenchmark -Dbenchmark.orders=2000 -Dbenchmark.products=10000,100000
+ *
+ * Statements are counted with the server's global Questions status variable, so anything else talking to the
+ * database at the same time is counted too. The orders and products it creates are left in place.
+ *
+ * createOrder only has the set-based path now; to get its "before" numbers, run this class on a checkout of
+ * the commit before that path was introduced, where createOrder takes the same ApiCreateOrderDTO.
+ */
+@SpringBootTest(properties = {"app.events.log.enabled=false", "app.dispatch.enabled=false"})
+public class WritePathBenchmark {
+    private static final int LINES_PER_ORDER = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int restaurantId;
+    private int customerId;
+    private List<Integer> productIds;
+
+    @BeforeEach
+    public void setUp() {
+        List<Integer> restaurants = jdbcTemplate.queryForList(
+            "SELECT restaurant_id FROM products GROUP BY restaurant_id HAVING COUNT(*) >= ? LIMIT 1",
+            Integer.class, LINES_PER_ORDER);
+        List<Integer> customers = jdbcTemplate.queryForList("SELECT id FROM customers LIMIT 1", Integer.class);
+        assumeTrue(!restaurants.isEmpty() && !customers.isEmpty(), "Needs a seeded database");
+        restaurantId = restaurants.get(0);
+        customerId = customers.get(0);
+        productIds = jdbcTemplate.queryForList("SELECT id FROM products WHERE restaurant_id = ? ORDER BY id LIMIT ?",
+            Integer.class, restaurantId, LINES_PER_ORDER);
+    }
+
+    @Test
+    public void createOrder() {
+        int orders = Integer.getInteger("benchmark.orders", 2_000);
+        List<ApiCreateOrderDTO.ProductOrder> lines = new ArrayList<>();
+        for (int productId : productIds) {
+            lines.add(new ApiCreateOrderDTO.ProductOrder(productId, 1));
+        }
+        // Warm up the connection pool, caches and JIT
+        for (int i = 0; i < Math.min(200, orders); i++) {
+            orderService.createOrder(new ApiCreateOrderDTO(restaurantId, customerId, lines));
+        }
+
+        long statementsBefore = questions();
+        long start = System.nanoTime();
+        for (int i = 0; i < orders; i++) {
+            orderService.createOrder(new ApiCreateOrderDTO(restaurantId, customerId, lines));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        // The SHOW STATUS reading the counter counts itself
+        long statements = questions() - statementsBefore - 1;
+
+        report("createOrder (" + LINES_PER_ORDER + " lines)", orders, elapsedNanos, statements);
+    }
+
+    @Test
+    public void importProducts() {
+        for (String size : System.getProperty("benchmark.products", "10000,100000").split(",")) {
+            int products = Integer.parseInt(size.trim());
+
+            long statementsBefore = questions();
+            long start = System.nanoTime();
+            for (int i = 0; i < products; i++) {
+                productService.addProduct("benchmark-row-" + i, "Per-row insert", 10, restaurantId);
+            }
+            report("addProduct per row x " + products, products, System.nanoTime() - start,
+                questions() - statementsBefore - 1);
+
+            byte[] menu = menu(products);
+            statementsBefore = questions();
+            start = System.nanoTime();
+            productService.importProducts(restaurantId, new ByteArrayInputStream(menu));
+            report("importProducts x " + products, products, System.nanoTime() - start,
+                questions() - statementsBefore - 1);
+        }
+    }
+
+    private long questions() {
+        return jdbcTemplate.query("SHOW GLOBAL STATUS LIKE 'Questions'",
+            (resultSet, rowNum) -> resultSet.getLong(2)).get(0);
+    }
+
+    private static byte[] menu(int products) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < products; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"name\":\"benchmark-bulk-").append(i).append("\",\"description\":\"Bulk insert\",\"cost\":10}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void report(String path, int operations, long elapsedNanos, long statements) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%s: %d in %.2f s, %.0f/s, %.2f statements each%n",
+            path, operations, seconds, operations / seconds, (double) statements / operations);
+    }
+}